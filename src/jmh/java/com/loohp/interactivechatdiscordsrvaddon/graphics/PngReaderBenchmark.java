@@ -0,0 +1,77 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.graphics;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PngReaderBenchmark {
+
+    @Param({"16", "64", "256"})
+    public int size;
+
+    @Param({"ARGB", "INDEXED"})
+    public String type;
+
+    private byte[] png;
+
+    @Setup
+    public void setup() throws IOException {
+        BufferedImage image = new BufferedImage(size, size, type.equals("INDEXED") ? BufferedImage.TYPE_BYTE_INDEXED : BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(0);
+        int[] colors = new int[24];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = random.nextInt();
+        }
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                image.setRGB(x, y, colors[(x / 2 + y / 3 + random.nextInt(3)) % colors.length]);
+            }
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        png = outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public BufferedImage pngReader() throws IOException {
+        return PngReader.read(new ByteArrayInputStream(png));
+    }
+
+    @Benchmark
+    public BufferedImage imageIO() throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+}
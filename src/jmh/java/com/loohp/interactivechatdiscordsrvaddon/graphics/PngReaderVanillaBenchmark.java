@@ -0,0 +1,89 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.loohp.interactivechatdiscordsrvaddon.graphics;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PngReaderVanillaBenchmark {
+
+    //the built-in Default pack as extracted by AssetsDownloader or the standalone tools
+    public static final String TEXTURES_FOLDER = System.getProperty("pngReaderBenchmark.textures", "InteractiveChatDiscordSrvAddon/built-in/Default/assets/minecraft/textures");
+
+    @Param({"block", "item", "entity"})
+    public String folder;
+
+    private byte[][] pngs;
+    private int index;
+
+    @Setup
+    public void setup() throws IOException {
+        File directory = new File(TEXTURES_FOLDER, folder);
+        if (!directory.isDirectory()) {
+            throw new IllegalStateException("Vanilla textures not found at " + directory.getAbsolutePath() + ", extract the built-in Default pack or set -DpngReaderBenchmark.textures");
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory.toPath())) {
+            files = stream.filter(path -> path.toString().endsWith(".png")).sorted().collect(Collectors.toList());
+        }
+        if (files.isEmpty()) {
+            throw new IllegalStateException("No textures found in " + directory.getAbsolutePath());
+        }
+        pngs = new byte[files.size()][];
+        for (int i = 0; i < pngs.length; i++) {
+            pngs[i] = Files.readAllBytes(files.get(i));
+        }
+        index = 0;
+    }
+
+    private byte[] next() {
+        byte[] png = pngs[index];
+        index = (index + 1) % pngs.length;
+        return png;
+    }
+
+    @Benchmark
+    public BufferedImage pngReader() throws IOException {
+        return PngReader.read(new ByteArrayInputStream(next()));
+    }
+
+    @Benchmark
+    public BufferedImage imageIO() throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(next()));
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import com.loohp.interactivechatdiscordsrvaddon.graphics.ImageUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheObjectRasterBenchmark {
+
+    @Param({"64", "256", "512"})
+    public int size;
+
+    private BufferedImage image;
+    private byte[] raster;
+    private byte[] png;
+
+    @Setup
+    public void setup() throws IOException {
+        image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        Random random = new Random(0);
+        int cell = Math.max(1, size / 16);
+        for (int i = 0; i < 96; i++) {
+            g.setColor(new Color(random.nextInt(0x1000000) | 0xFF000000, true));
+            g.fillRect(random.nextInt(16) * cell, random.nextInt(16) * cell, cell * (1 + random.nextInt(3)), cell * (1 + random.nextInt(3)));
+        }
+        g.dispose();
+        raster = writeRaster();
+        png = writePng();
+    }
+
+    @Benchmark
+    public byte[] writeRaster() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream dataOutputStream = new DataOutputStream(outputStream)) {
+            CacheObject.writeRaster(dataOutputStream, image);
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public BufferedImage readRaster() throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(raster))) {
+            return CacheObject.readRaster(inputStream);
+        }
+    }
+
+    @Benchmark
+    public byte[] writePng() throws IOException {
+        return ImageUtils.toArray(image);
+    }
+
+    @Benchmark
+    public BufferedImage readPng() throws IOException {
+        return ImageUtils.fromArray(png);
+    }
+
+}
@@ -26,7 +26,12 @@ import com.loohp.interactivechat.utils.ChatColorUtils;
 import com.loohp.interactivechat.utils.ComponentStyling;
 import com.loohp.interactivechat.utils.LanguageUtils;
 import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
+import com.loohp.interactivechatdiscordsrvaddon.resources.CacheStats;
+import com.loohp.interactivechatdiscordsrvaddon.resources.ICacheManager;
+import com.loohp.interactivechatdiscordsrvaddon.resources.RenderCacheWarmer;
+import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourcePackInfo;
+import com.loohp.interactivechatdiscordsrvaddon.resources.textures.TexturePool;
 import com.loohp.interactivechatdiscordsrvaddon.utils.ResourcePackInfoUtils;
 import com.loohp.interactivechatdiscordsrvaddon.utils.TranslationKeyUtils;
 import net.kyori.adventure.text.Component;
@@ -97,6 +102,25 @@ public class Commands implements CommandExecutor, TabCompleter {
                         }
                     }
                 }
+                ResourceManager resourceManager = InteractiveChatDiscordSrvAddon.plugin.getResourceManager();
+                if (resourceManager.hasResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class)) {
+                    CacheStats stats = resourceManager.getResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class).getStats();
+                    sender.sendMessage(ChatColor.GRAY + String.format("Cache: %.1f%% hit rate (%d hits, %d misses), %d in memory, %d stored (%.1f MB)", stats.getHitRate() * 100, stats.getHitCount(), stats.getMissCount(), stats.getMemoryEntryCount(), stats.getStoreEntryCount(), stats.getStoreBytes() / 1048576.0));
+                    sender.sendMessage(ChatColor.GRAY + String.format("Cache: %d unrenderable models remembered (%d hits, %d misses)", stats.getNegativeEntryCount(), stats.getNegativeHitCount(), stats.getNegativeMissCount()));
+                    sender.sendMessage(ChatColor.GRAY + String.format("Cache: %d memory evictions, %d store evictions, %.2f ms avg load, %.2f ms avg serialization", stats.getMemoryEvictionCount(), stats.getStoreEvictionCount(), stats.getLoadTimes().getMeanMillis(), stats.getSerializationTimes().getMeanMillis()));
+                    RenderCacheWarmer renderCacheWarmer = InteractiveChatDiscordSrvAddon.plugin.getRenderCacheWarmer();
+                    if (renderCacheWarmer != null && renderCacheWarmer.isRunning()) {
+                        sender.sendMessage(ChatColor.GRAY + "Cache: warming up " + renderCacheWarmer.getCompleted() + "/" + renderCacheWarmer.getTotal() + " item models");
+                    }
+                    sender.sendMessage(ChatColor.GRAY + String.format("Textures: %.1f%% hit rate (%d hits, %d misses), %d decoded, %d evictions", TexturePool.getHitRate() * 100, TexturePool.getHitCount(), TexturePool.getMissCount(), TexturePool.getEntryCount(), TexturePool.getEvictionCount()));
+                    for (String family : stats.getKeyFamilies()) {
+                        long hits = stats.getHitCount(family);
+                        long misses = stats.getMissCount(family);
+                        if (hits > 0 || misses > 0) {
+                            sender.sendMessage(ChatColor.GRAY + " - " + family + ": " + hits + " hits, " + misses + " misses");
+                        }
+                    }
+                }
             } else {
                 sender.sendMessage(InteractiveChat.noPermissionMessage);
             }
@@ -31,9 +31,11 @@ import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
 import com.loohp.interactivechatdiscordsrvaddon.resources.*;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceManager.ModManagerSupplier;
 import com.loohp.interactivechatdiscordsrvaddon.resources.fonts.FontManager;
+import com.loohp.interactivechatdiscordsrvaddon.resources.languages.LanguageManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.mods.ModManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.mods.chime.ChimeManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.mods.optifine.OptifineManager;
+import com.loohp.interactivechatdiscordsrvaddon.resources.textures.TexturePool;
 import com.loohp.interactivechatdiscordsrvaddon.utils.ResourcePackUtils;
 import com.loohp.interactivechatdiscordsrvaddon.utils.TranslationKeyUtils;
 import net.kyori.adventure.text.Component;
@@ -47,11 +49,14 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 
+import javax.management.ObjectName;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.*;
@@ -60,6 +65,7 @@ import java.util.concurrent.locks.ReentrantLock;
 
 public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listener {
     public static final String CONFIG_ID = "interactivechatdiscordsrvaddon_config";
+    public static final String RESOURCE_SNAPSHOT_FILE_NAME = "resources.snapshot";
     public static InteractiveChatDiscordSrvAddon plugin;
     public static InteractiveChat interactivechat;
     public static boolean isReady = false;
@@ -68,6 +74,8 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
     public final AtomicLong inventoryImageCounter = new AtomicLong(0);
     public final List<String> resourceOrder = new ArrayList<>();
     protected final ReentrantLock resourceReloadLock = new ReentrantLock(true);
+    private final Set<ResourceManager> retiringResourceManagers = ConcurrentHashMap.newKeySet();
+    private final ResourcePackLayerCache resourcePackLayerCache = new ResourcePackLayerCache();
     protected final Map<String, byte[]> extras = new ConcurrentHashMap<>();
     public boolean renderHandHeldItems = true;
     public String itemDisplaySingle = "";
@@ -79,6 +87,9 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
     public boolean imageWhitelistEnabled = false;
     public List<String> whitelistedImageUrls = new ArrayList<>();
     public int cacheTimeout = 1200;
+    public int negativeCacheTimeout = 600;
+    public long cacheMaxStoreSize = 512L * 1024 * 1024;
+    public boolean persistentCache = false;
     public boolean reducedAssetsDownloadInfo = false;
     public String language = "en_us";
     public PlaceholderCooldownManager placeholderCooldownManager;
@@ -89,6 +100,7 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
     public String alternateResourcePackHash = "";
     public boolean optifineCustomTextures = true;
     public boolean chimeOverrideModels = true;
+    public boolean memoryMappedResourcePacks = false;
     public int embedDeleteAfter = 0;
     public boolean showDurability = true;
     public boolean showArmorColor = true;
@@ -99,15 +111,24 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
     public boolean showBooks = true;
     public boolean showContainers = true;
     public int rendererThreads = -1;
+    public boolean warmUpCache = false;
+    public double warmUpCpuBudget = 0.25;
+    public long texturePoolSize = TexturePool.DEFAULT_MAX_BYTES;
+    public long languageIdleTimeout = TimeUnit.MINUTES.toMillis(30);
     public ModelRenderer modelRenderer;
     public ExecutorService mediaReadingService;
-    private ResourceManager resourceManager;
+    private volatile ResourceManager resourceManager;
+    private RenderCacheWarmer renderCacheWarmer;
 
     @EventHandler
     public void onJoin(PlayerJoinEvent event) {
         Bukkit.getScheduler().runTaskLaterAsynchronously(this, () -> cachePlayerSkin(ICPlayerFactory.getICPlayer(event.getPlayer())), 40);
     }
 
+    public RenderCacheWarmer getRenderCacheWarmer() {
+        return renderCacheWarmer;
+    }
+
     public ResourceManager getResourceManager() {
         if (resourceManager == null) {
             throw new ResourceLoadingException("Resources are still being loaded, please wait!");
@@ -115,6 +136,18 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
         return resourceManager;
     }
 
+    public ResourceManager retainResourceManager() {
+        while (true) {
+            ResourceManager resourceManager = getResourceManager();
+            if (resourceManager.retain()) {
+                return resourceManager;
+            }
+            if (resourceManager == this.resourceManager) {
+                throw new ResourceLoadingException("Resources are no longer available, please wait!");
+            }
+        }
+    }
+
     @EventHandler
     public void onInteractiveChatReload(InteractiveChatConfigReloadEvent event) {
         Bukkit.getScheduler().runTaskLater(this, () -> placeholderCooldownManager.reloadPlaceholders(), 5);
@@ -199,6 +232,18 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
             return Runtime.getRuntime().availableProcessors() + rendererThreads;
         });
 
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new CacheStatsMonitor(() -> {
+                ResourceManager manager = resourceManager;
+                if (manager == null || !manager.hasResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class)) {
+                    return null;
+                }
+                return manager.getResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class).getStats();
+            }), new ObjectName(CacheStatsMonitor.OBJECT_NAME));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
         ThreadFactory factory = new ThreadFactoryBuilder().setNameFormat("InteractiveChatDiscordSRVAddon Async Media Reading Thread #%d").build();
         mediaReadingService = Executors.newFixedThreadPool(4, factory);
 
@@ -209,6 +254,17 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
             AssetsDownloader.loadExtras();
         }, 600, 6000);
 
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
+            ResourceManager resourceManager = this.resourceManager;
+            if (resourceManager != null && resourceManager.retain()) {
+                try {
+                    resourceManager.getLanguageManager().evictUnusedLocales(languageIdleTimeout);
+                } finally {
+                    resourceManager.release();
+                }
+            }
+        }, 1200, 1200);
+
         Bukkit.getScheduler().runTask(this, () -> placeholderCooldownManager = new PlaceholderCooldownManager());
     }
 
@@ -221,7 +277,7 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
                 JSONObject json = (JSONObject) new JSONParser().parse(SkinUtils.getSkinJsonFromProfile(player.getLocalPlayer()));
                 String value = (String) ((JSONObject) ((JSONObject) json.get("textures")).get("SKIN")).get("url");
                 BufferedImage skin = ImageUtils.downloadImage(value);
-                resourceManager.getResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class).putCache(uuid + value + ImageGeneration.PLAYER_SKIN_CACHE_KEY, skin);
+                putSkinCache(uuid + value + ImageGeneration.PLAYER_SKIN_CACHE_KEY, skin);
             } catch (Exception ignored) {
             }
         } else {
@@ -229,22 +285,68 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
                 UUID uuid = player.getUniqueId();
                 String value = SkinUtils.getSkinURLFromUUID(uuid);
                 BufferedImage skin = ImageUtils.downloadImage(value);
-                resourceManager.getResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class).putCache(uuid + "null" + ImageGeneration.PLAYER_SKIN_CACHE_KEY, skin);
+                putSkinCache(uuid + "null" + ImageGeneration.PLAYER_SKIN_CACHE_KEY, skin);
             } catch (Exception ignored) {
             }
         }
     }
 
+    //the maps are read-only views over the LanguageManager's TranslationStore, InteractiveChat decides whether it copies them
+    //every indexed locale is published, a lazy locale is loaded (and kept from eviction) when InteractiveChat reads it
+    private synchronized void publishTranslations(Map<String, Map<String, String>> translations) {
+        LanguageUtils.clearPluginTranslations(this);
+        for (Entry<String, Map<String, String>> entry : translations.entrySet()) {
+            LanguageUtils.loadPluginTranslations(this, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void putSkinCache(String key, BufferedImage skin) {
+        ResourceManager resourceManager = retainResourceManager();
+        try {
+            resourceManager.getResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class).putCache(key, skin);
+        } finally {
+            resourceManager.release();
+        }
+    }
+
     @Override
     public void onDisable() {
+        if (renderCacheWarmer != null) {
+            renderCacheWarmer.cancel();
+        }
         modelRenderer.close();
         mediaReadingService.shutdown();
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(CacheStatsMonitor.OBJECT_NAME));
+        } catch (Exception ignore) {
+        }
+        for (ResourceManager retiringResourceManager : retiringResourceManagers) {
+            retiringResourceManager.close();
+        }
+        retiringResourceManagers.clear();
         if (resourceManager != null) {
+            writeResourceSnapshot(resourceManager);
             resourceManager.close();
         }
         getServer().getConsoleSender().sendMessage(ChatColor.RED + "[ICDiscordSrvAddon] InteractiveChat DiscordSRV Addon has been Disabled!");
     }
 
+    private void writeResourceSnapshot(ResourceManager resourceManager) {
+        if (resourceManager.getResourcePackInfo().stream().allMatch(ResourcePackInfo::getStatus) && resourcePackLayerCache.isModified()) {
+            try {
+                long modificationCount = resourcePackLayerCache.getModificationCount();
+                ResourcePackLayerSnapshot.write(resourcePackLayerCache, getResourceSnapshotContext(), new File(getDataFolder(), RESOURCE_SNAPSHOT_FILE_NAME));
+                resourcePackLayerCache.markSaved(modificationCount);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private String getResourceSnapshotContext() {
+        return InteractiveChat.version.name() + ":" + getDescription().getVersion();
+    }
+
     public boolean compatible() {
         try {
             return Registry.class.getField("INTERACTIVE_CHAT_DISCORD_SRV_ADDON_COMPATIBLE_VERSION").getInt(null) == InteractiveChatRegistry.class.getField("INTERACTIVE_CHAT_DISCORD_SRV_ADDON_COMPATIBLE_VERSION").getInt(null);
@@ -279,6 +381,7 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
         alternateResourcePackHash = config.getConfiguration().getString("Resources.AlternateServerResourcePack.Hash");
         optifineCustomTextures = config.getConfiguration().getBoolean("Resources.OptifineCustomTextures");
         chimeOverrideModels = config.getConfiguration().getBoolean("Resources.ChimeOverrideModels") && InteractiveChat.version.isNewerOrEqualTo(MCVersion.V1_16);
+        memoryMappedResourcePacks = config.getConfiguration().getBoolean("Resources.MemoryMappedResourcePacks");
 
         renderHandHeldItems = config.getConfiguration().getBoolean("InventoryImage.Inventory.RenderHandHeldItems");
 
@@ -287,6 +390,9 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
 
 
         cacheTimeout = config.getConfiguration().getInt("Settings.CacheTimeout") * 20;
+        negativeCacheTimeout = config.getConfiguration().getInt("Settings.NegativeCacheTimeout") * 20;
+        cacheMaxStoreSize = config.getConfiguration().getLong("Settings.CacheMaxStoreSize") * 1024 * 1024;
+        persistentCache = config.getConfiguration().getBoolean("Settings.PersistentCache");
 
         reducedAssetsDownloadInfo = config.getConfiguration().getBoolean("Settings.ReducedAssetsDownloadInfo");
 
@@ -304,6 +410,11 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
         showBooks = config.getConfiguration().getBoolean("DiscordItemDetailsAndInteractions.ShowBooks");
         showContainers = config.getConfiguration().getBoolean("DiscordItemDetailsAndInteractions.ShowContainers");
         rendererThreads = config.getConfiguration().getInt("Settings.RendererSettings.RendererThreads");
+        warmUpCache = config.getConfiguration().getBoolean("Settings.RendererSettings.WarmUpCache");
+        warmUpCpuBudget = config.getConfiguration().getDouble("Settings.RendererSettings.WarmUpCpuBudget") / 100.0;
+        texturePoolSize = config.getConfiguration().getLong("Settings.RendererSettings.TexturePoolSize") * 1024 * 1024;
+        TexturePool.setMaxBytes(texturePoolSize);
+        languageIdleTimeout = TimeUnit.MINUTES.toMillis(config.getConfiguration().getLong("Settings.RendererSettings.LanguageIdleTimeout"));
         language = config.getConfiguration().getString("Resources.Language");
         LanguageUtils.loadTranslations(language);
         forceUnicode = config.getConfiguration().getBoolean("Resources.ForceUnicodeFont");
@@ -325,8 +436,12 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
                     sendMessage(ChatColor.YELLOW + "Resource reloading already in progress!", senders);
                     return;
                 }
-                isReady = false;
-                if (InteractiveChatDiscordSrvAddon.plugin.isResourceManagerReady()) {
+                if (renderCacheWarmer != null) {
+                    renderCacheWarmer.cancel();
+                    renderCacheWarmer = null;
+                }
+                if ((redownload || clean) && InteractiveChatDiscordSrvAddon.plugin.isResourceManagerReady()) {
+                    isReady = false;
                     Bukkit.getScheduler().callSyncMethod(plugin, () -> {
                         InteractiveChatDiscordSrvAddon.plugin.getResourceManager().close();
                         return null;
@@ -390,7 +505,7 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
                         InteractiveChat.version.isLegacy(),
                         InteractiveChat.version.isOlderOrEqualTo(MCVersion.V1_18_2),
                         mods,
-                        Arrays.asList(CustomItemTextureRegistry.getDefaultSupplier(), ICacheManager.getDefaultSupplier(new File(getDataFolder(), "cache"))),
+                        Arrays.asList(CustomItemTextureRegistry.getDefaultSupplier(), ICacheManager.getDefaultSupplier(new File(getDataFolder(), "cache"), Duration.ofMillis(cacheTimeout * 50L), Duration.ofMillis(negativeCacheTimeout * 50L), cacheMaxStoreSize, persistentCache, ImageGeneration.CACHE_KEY_FAMILIES)),
                         (resourcePackFile, type) -> new ResourceManager.DefaultResourcePackInfo(
                                 Component.translatable(TranslationKeyUtils.getResourcePackVanillaName()),
                                 ResourcePackUtils.getServerResourcePackVersion(),
@@ -402,13 +517,28 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
                     Bukkit.getConsoleSender().sendMessage(ChatColor.GRAY + "[ICDiscordSrvAddon] Registered ModManager \"" + entry.getKey() + "\" of class \"" + entry.getValue().getClass().getName() + "\"");
                 }
 
+                File resourceSnapshotFile = new File(getDataFolder(), RESOURCE_SNAPSHOT_FILE_NAME);
+                String resourceSnapshotContext = getResourceSnapshotContext();
+                if (clean) {
+                    resourcePackLayerCache.clear();
+                } else if (resourcePackLayerCache.getLayerCount() == 0 && resourceSnapshotFile.exists()) {
+                    try {
+                        ResourcePackLayerSnapshot.read(resourcePackLayerCache, resourceSnapshotContext, resourceSnapshotFile);
+                        resourcePackLayerCache.clearModified();
+                    } catch (Exception e) {
+                        new IOException("Unable to read resource snapshot, it will be rebuilt", e).printStackTrace();
+                        resourcePackLayerCache.clear();
+                    }
+                }
+                resourceManager.setLayerCache(resourcePackLayerCache);
+                resourceManager.getModelManager().setLazyLoading(true);
+                resourceManager.getLanguageManager().setLazyLoading(true);
                 resourceManager.getFontManager().setDefaultKey(forceUnicode ? FontManager.UNIFORM_FONT : FontManager.DEFAULT_FONT);
-                resourceManager.getLanguageManager().setTranslateFunction(LanguageUtils::getTranslation);
+                resourceManager.getLanguageManager().setTranslateFunction(LanguageManager.defaultTranslateFunction(resourceManager.getLanguageManager(), LanguageUtils::getTranslation));
                 resourceManager.getLanguageManager().setAvailableLanguagesSupplier(LanguageUtils::getLoadedLanguages);
                 resourceManager.getLanguageManager().registerReloadListener(e -> {
-                    LanguageUtils.clearPluginTranslations(InteractiveChatDiscordSrvAddon.plugin);
-                    for (Entry<String, Map<String, String>> entry : e.getTranslations().entrySet()) {
-                        LanguageUtils.loadPluginTranslations(InteractiveChatDiscordSrvAddon.plugin, entry.getKey(), entry.getValue());
+                    if (InteractiveChatDiscordSrvAddon.plugin.resourceManager == resourceManager) {
+                        publishTranslations(e.getTranslations());
                     }
                 });
 
@@ -418,7 +548,7 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
                     try {
                         Bukkit.getConsoleSender().sendMessage(ChatColor.AQUA + "[ICDiscordSrvAddon] Loading \"" + resourceName + "\" resources...");
                         File resourcePackFile = new File(getDataFolder(), "resourcepacks/" + resourceName);
-                        ResourcePackInfo info = resourceManager.loadResources(resourcePackFile, ResourcePackType.LOCAL);
+                        ResourcePackInfo info = resourceManager.loadResources(resourcePackFile, ResourcePackType.LOCAL, false, memoryMappedResourcePacks);
                         if (info.getStatus()) {
                             if (info.compareServerPackFormat(ResourceRegistry.RESOURCE_PACK_VERSION) > 0) {
                                 sendMessage(ChatColor.YELLOW + "[ICDiscordSrvAddon] Warning: \"" + resourceName + "\" was made for a newer version of Minecraft!", senders);
@@ -441,7 +571,7 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
                     String resourceName = serverResourcePack.getName();
                     try {
                         Bukkit.getConsoleSender().sendMessage(ChatColor.AQUA + "[ICDiscordSrvAddon] Loading \"" + resourceName + "\" resources...");
-                        ResourcePackInfo info = resourceManager.loadResources(serverResourcePack, ResourcePackType.SERVER);
+                        ResourcePackInfo info = resourceManager.loadResources(serverResourcePack, ResourcePackType.SERVER, false, memoryMappedResourcePacks);
                         if (info.getStatus()) {
                             if (info.compareServerPackFormat(ResourceRegistry.RESOURCE_PACK_VERSION) > 0) {
                                 sendMessage(ChatColor.YELLOW + "[ICDiscordSrvAddon] Warning: \"" + resourceName + "\" was made for a newer version of Minecraft!", senders);
@@ -461,18 +591,48 @@ public class InteractiveChatDiscordSrvAddon extends JavaPlugin implements Listen
                     }
                 }
 
-                Bukkit.getScheduler().callSyncMethod(plugin, () -> {
+                CompletableFuture<Void> languagePreload = resourceManager.getLanguageManager().preloadLocale(language);
+
+                resourcePackLayerCache.evictUnused();
+
+                if (resourceManager.hasResourceRegistry(ICacheManager.IDENTIFIER, CacheManager.class)) {
+                    resourceManager.getResourceRegistry(ICacheManager.IDENTIFIER, CacheManager.class).scheduleStaleEntriesCollection();
+                }
+
+                try {
+                    languagePreload.join();
+                } catch (CompletionException e) {
+                    e.printStackTrace();
+                }
+                writeResourceSnapshot(resourceManager);
+
+                ResourceManager previousResourceManager = Bukkit.getScheduler().callSyncMethod(plugin, () -> {
+                    ResourceManager previous = InteractiveChatDiscordSrvAddon.plugin.resourceManager;
                     InteractiveChatDiscordSrvAddon.plugin.resourceManager = resourceManager;
+                    publishTranslations(resourceManager.getLanguageManager().getTranslations());
 
                     if (resourceManager.getResourcePackInfo().stream().allMatch(ResourcePackInfo::getStatus)) {
                         sendMessage(ChatColor.AQUA + "[ICDiscordSrvAddon] Loaded all resources!", senders);
                         isReady = true;
                     } else {
                         sendMessage(ChatColor.RED + "[ICDiscordSrvAddon] There is a problem while loading resources.", senders);
+                        isReady = false;
                     }
-                    return null;
+                    return previous;
                 }).get();
 
+                if (previousResourceManager != null && previousResourceManager != resourceManager) {
+                    retiringResourceManagers.removeIf(each -> !each.isValid());
+                    retiringResourceManagers.add(previousResourceManager);
+                    previousResourceManager.closeWhenReleased();
+                }
+
+                if (warmUpCache && modelRenderer != null) {
+                    ThreadFactory factory = new ThreadFactoryBuilder().setNameFormat("InteractiveChatDiscordSRVAddon Render Cache Warm-up Thread").build();
+                    renderCacheWarmer = new RenderCacheWarmer(resourceManager, modelRenderer, ImageGeneration.DEFAULT_ITEM_RENDER_SIZE, InteractiveChat.version.isOld(), warmUpCpuBudget, imageCounter::get, message -> Bukkit.getConsoleSender().sendMessage(ChatColor.GRAY + "[ICDiscordSrvAddon] " + message), factory);
+                    renderCacheWarmer.start();
+                }
+
                 resourceReloadLock.unlock();
             } catch (InterruptedException | ExecutionException e) {
                 e.printStackTrace();
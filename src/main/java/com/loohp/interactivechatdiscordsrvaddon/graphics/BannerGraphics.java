@@ -20,8 +20,8 @@
 
 package com.loohp.interactivechatdiscordsrvaddon.graphics;
 
-import com.loohp.interactivechatdiscordsrvaddon.InteractiveChatDiscordSrvAddon;
 import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
+import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceManager;
 import com.loohp.interactivechatdiscordsrvaddon.wrappers.PatternTypeWrapper;
 import org.bukkit.DyeColor;
 import org.bukkit.Material;
@@ -37,8 +37,8 @@ import java.util.List;
 
 public class BannerGraphics {
 
-    public static BannerAssetResult generateBannerAssets(ItemStack item) {
-        BufferedImage baseImage = InteractiveChatDiscordSrvAddon.plugin.getResourceManager().getTextureManager().getTexture(ResourceRegistry.ENTITY_TEXTURE_LOCATION + "banner_base").getTexture(64, 64);
+    public static BannerAssetResult generateBannerAssets(ResourceManager manager, ItemStack item) {
+        BufferedImage baseImage = manager.getTextureManager().getTexture(ResourceRegistry.ENTITY_TEXTURE_LOCATION + "banner_base").getTexture(64, 64);
         BufferedImage patternsImage = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
 
         Material icMaterial = item.getType();
@@ -73,7 +73,7 @@ public class BannerGraphics {
         for (Pattern pattern : patterns) {
             PatternTypeWrapper type = PatternTypeWrapper.fromPatternType(pattern.getPattern());
             Color color = new Color(pattern.getColor().getColor().asRGB());
-            BufferedImage image = InteractiveChatDiscordSrvAddon.plugin.getResourceManager().getTextureManager().getTexture(ResourceRegistry.BANNER_TEXTURE_LOCATION + type.getAssetName()).getTexture(64, 64);
+            BufferedImage image = manager.getTextureManager().getTexture(ResourceRegistry.BANNER_TEXTURE_LOCATION + type.getAssetName()).getTexture(64, 64);
             BufferedImage tint = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
             Graphics2D g3 = tint.createGraphics();
             g3.setColor(color);
@@ -88,19 +88,19 @@ public class BannerGraphics {
     }
 
     @SuppressWarnings("deprecation")
-    public static BannerAssetResult generateShieldAssets(ItemStack item) {
+    public static BannerAssetResult generateShieldAssets(ResourceManager manager, ItemStack item) {
         if (!item.hasItemMeta()) {
-            return getDefaultShieldAssets();
+            return getDefaultShieldAssets(manager);
         }
 
         List<Pattern> patterns;
         Color baseColor;
         if (!(item.getItemMeta() instanceof BannerMeta meta)) {
             if (!(item.getItemMeta() instanceof BlockStateMeta bmeta)) {
-                return getDefaultShieldAssets();
+                return getDefaultShieldAssets(manager);
             }
             if (!bmeta.hasBlockState()) {
-                return getDefaultShieldAssets();
+                return getDefaultShieldAssets(manager);
             }
             Banner bannerBlockMeta = (Banner) bmeta.getBlockState();
             patterns = bannerBlockMeta.getPatterns();
@@ -110,7 +110,7 @@ public class BannerGraphics {
             baseColor = new Color(meta.getBaseColor().getColor().asRGB());
         }
 
-        BufferedImage baseImage = InteractiveChatDiscordSrvAddon.plugin.getResourceManager().getTextureManager().getTexture(ResourceRegistry.ENTITY_TEXTURE_LOCATION + "shield_base").getTexture(64, 64);
+        BufferedImage baseImage = manager.getTextureManager().getTexture(ResourceRegistry.ENTITY_TEXTURE_LOCATION + "shield_base").getTexture(64, 64);
         BufferedImage patternsImage = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
 
         BufferedImage baseTint = new BufferedImage(12, 22, BufferedImage.TYPE_INT_ARGB);
@@ -126,7 +126,7 @@ public class BannerGraphics {
         for (Pattern pattern : patterns) {
             PatternTypeWrapper type = PatternTypeWrapper.fromPatternType(pattern.getPattern());
             Color color = new Color(pattern.getColor().getColor().asRGB());
-            BufferedImage image = InteractiveChatDiscordSrvAddon.plugin.getResourceManager().getTextureManager().getTexture(ResourceRegistry.SHIELD_TEXTURE_LOCATION + type.getAssetName()).getTexture(64, 64);
+            BufferedImage image = manager.getTextureManager().getTexture(ResourceRegistry.SHIELD_TEXTURE_LOCATION + type.getAssetName()).getTexture(64, 64);
             BufferedImage tint = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
             Graphics2D g3 = tint.createGraphics();
             g3.setColor(color);
@@ -140,8 +140,8 @@ public class BannerGraphics {
         return new BannerAssetResult(baseImage, patternsImage);
     }
 
-    private static BannerAssetResult getDefaultShieldAssets() {
-        return new BannerAssetResult(InteractiveChatDiscordSrvAddon.plugin.getResourceManager().getTextureManager().getTexture(ResourceRegistry.ENTITY_TEXTURE_LOCATION + "shield_base_nopattern").getTexture(), new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
+    private static BannerAssetResult getDefaultShieldAssets(ResourceManager manager) {
+        return new BannerAssetResult(manager.getTextureManager().getTexture(ResourceRegistry.ENTITY_TEXTURE_LOCATION + "shield_base_nopattern").getTexture(), new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
     }
 
     public static class BannerAssetResult {
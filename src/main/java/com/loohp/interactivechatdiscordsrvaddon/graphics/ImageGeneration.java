@@ -22,6 +22,7 @@ package com.loohp.interactivechatdiscordsrvaddon.graphics;
 
 import com.loohp.blockmodelrenderer.blending.BlendingModes;
 import com.loohp.blockmodelrenderer.utils.ColorUtils;
+import com.loohp.interactivechat.utils.InteractiveChatComponentSerializer;
 import com.loohp.interactivechatdiscordsrvaddon.InteractiveChatDiscordSrvAddon;
 import com.loohp.interactivechatdiscordsrvaddon.debug.Debug;
 import com.loohp.interactivechatdiscordsrvaddon.objectholders.AdvancementType;
@@ -31,6 +32,7 @@ import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
 import com.loohp.interactivechatdiscordsrvaddon.resources.CacheObject;
 import com.loohp.interactivechatdiscordsrvaddon.resources.CustomItemTextureRegistry;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ICacheManager;
+import com.loohp.interactivechatdiscordsrvaddon.resources.ModelRenderer;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ModelRenderer.PlayerModelItem;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ModelRenderer.PlayerModelItemPosition;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ModelRenderer.RawEnchantmentGlintData;
@@ -92,6 +94,7 @@ public class ImageGeneration {
     public static final String PLAYER_SKIN_CACHE_KEY = "PlayerSkinTexture";
     public static final String INVENTORY_CACHE_KEY = "Inventory";
     public static final String PLAYER_INVENTORY_CACHE_KEY = "PlayerInventory";
+    public static final List<String> CACHE_KEY_FAMILIES = Collections.unmodifiableList(Arrays.asList(ModelRenderer.CACHE_KEY, PLAYER_INVENTORY_CACHE_KEY, INVENTORY_CACHE_KEY, PLAYER_SKIN_CACHE_KEY, PLAYER_CAPE_CACHE_KEY));
     public static final int TABLIST_SINGLE_COLUMN_LIMIT = 20;
     public static final int TABLIST_PLAYER_DISPLAY_LIMIT = 80;
     public static final int TABLIST_INTERNAL_HEIGHT = 146;
@@ -107,10 +110,29 @@ public class ImageGeneration {
     public static final String OPTIFINE_CAPE_URL = "https://optifine.net/capes/%s.png";
     public static final String PLAYER_INFO_URL = "https://sessionserver.mojang.com/session/minecraft/profile/%s";
 
-    private static final Supplier<ResourceManager> resourceManager = () -> InteractiveChatDiscordSrvAddon.plugin.getResourceManager();
+    private static final ThreadLocal<ResourceManager> retainedResourceManager = new ThreadLocal<>();
+    private static final Supplier<ResourceManager> resourceManager = () -> {
+        ResourceManager manager = retainedResourceManager.get();
+        return manager == null ? InteractiveChatDiscordSrvAddon.plugin.getResourceManager() : manager;
+    };
     private static final Supplier<MCVersion> version = () -> InteractiveChat.version;
     private static final Supplier<String> language = () -> InteractiveChatDiscordSrvAddon.plugin.language;
     private static final Supplier<UnaryOperator<String>> translateFunction = () -> resourceManager.get().getLanguageManager().getTranslateFunction().ofLanguage(language.get());
+    private static final SingleFlight<String, BufferedImage> inFlightInventoryImages = new SingleFlight<>();
+
+    private static <T, E extends Exception> T withResourceManager(ResourceManagerTask<T, E> task) throws E {
+        if (retainedResourceManager.get() != null) {
+            return task.run();
+        }
+        ResourceManager manager = InteractiveChatDiscordSrvAddon.plugin.retainResourceManager();
+        retainedResourceManager.set(manager);
+        try {
+            return task.run();
+        } finally {
+            retainedResourceManager.remove();
+            manager.release();
+        }
+    }
 
     public static BufferedImage getMissingImage(int width, int length) {
         return TextureManager.getMissingImage(width, length);
@@ -163,10 +185,18 @@ public class ImageGeneration {
     }
 
     public static List<ValuePairs<TextureResource, OpenGLBlending>> getDefaultEnchantmentTint() {
+        return withResourceManager(() -> getDefaultEnchantmentTint0());
+    }
+
+    private static List<ValuePairs<TextureResource, OpenGLBlending>> getDefaultEnchantmentTint0() {
         return Collections.singletonList(new ValuePairs<>(resourceManager.get().getTextureManager().getTexture(ResourceRegistry.MISC_TEXTURE_LOCATION + "enchanted_item_glint"), OpenGLBlending.GLINT));
     }
 
     public static BufferedImage getAdvancementIcon(ItemStack item, AdvancementType advancementType, boolean completed, Player player) throws IOException {
+        return withResourceManager(() -> getAdvancementIcon0(item, advancementType, completed, player));
+    }
+
+    private static BufferedImage getAdvancementIcon0(ItemStack item, AdvancementType advancementType, boolean completed, Player player) throws IOException {
         BufferedImage frame = ImageUtils.resizeImageAbs(getAdvancementFrame(advancementType, completed), 52, 52);
         BufferedImage itemImage = getRawItemImage(item, player);
         Graphics2D g = frame.createGraphics();
@@ -188,6 +218,10 @@ public class ImageGeneration {
     }
 
     public static BufferedImage getItemStackImage(ItemStack item, Player player, boolean alternateAir, int renderSize) throws IOException {
+        return withResourceManager(() -> getItemStackImage0(item, player, alternateAir, renderSize));
+    }
+
+    private static BufferedImage getItemStackImage0(ItemStack item, Player player, boolean alternateAir, int renderSize) throws IOException {
         InteractiveChatDiscordSrvAddon.plugin.imageCounter.incrementAndGet();
         Debug.debug("ImageGeneration creating item stack image " + item);
 
@@ -222,18 +256,31 @@ public class ImageGeneration {
     }
 
     public static BufferedImage getInventoryImage(Inventory inventory, Component title, Player player) throws Exception {
+        return withResourceManager(() -> getInventoryImage0(inventory, title, player));
+    }
+
+    private static BufferedImage getInventoryImage0(Inventory inventory, Component title, Player player) throws Exception {
         InteractiveChatDiscordSrvAddon.plugin.imageCounter.incrementAndGet();
         InteractiveChatDiscordSrvAddon.plugin.inventoryImageCounter.incrementAndGet();
         Debug.debug("ImageGeneration creating inventory image of " + player.getName());
 
-        String key = INVENTORY_CACHE_KEY + HashUtils.createSha1("Inventory", inventory);
-        if (!inventory.contains(Material.COMPASS) && !inventory.contains(Material.CLOCK) && Arrays.stream(inventory.getContents()).anyMatch(each -> each != null && NBTEditor.contains(each, "CustomModelData"))) {
+        String titleJson = title == null ? "" : InteractiveChatComponentSerializer.gson().serialize(title);
+        String key = INVENTORY_CACHE_KEY + HashUtils.createSha1(player.getUniqueId() + InteractiveChatDiscordSrvAddon.plugin.language + titleJson, inventory);
+        boolean locationDependent = inventory.contains(Material.COMPASS) || inventory.contains(Material.CLOCK);
+        if (!locationDependent && Arrays.stream(inventory.getContents()).anyMatch(each -> each != null && NBTEditor.contains(each, "CustomModelData"))) {
             CacheObject<?> cache = resourceManager.get().getResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class).getCache(key);
             if (cache != null) {
                 return ImageUtils.copyImage((BufferedImage) cache.getObject());
             }
         }
 
+        if (locationDependent) {
+            return ImageUtils.copyImage(renderInventoryImage(inventory, title, player, key));
+        }
+        return ImageUtils.copyImage(inFlightInventoryImages.call(key, () -> renderInventoryImage(inventory, title, player, key)));
+    }
+
+    private static BufferedImage renderInventoryImage(Inventory inventory, Component title, Player player, String key) throws Exception {
         int rows = inventory.getSize() / 9;
         GenericContainerBackgroundResult result = getGenericContainerBackground(rows, (image, x, y, fontSize, defaultTextColor) -> {
             Component defaultColorTitle = title == null ? Component.translatable(TranslationKeyUtils.getDefaultContainerTitle()).color(defaultTextColor) : title.colorIfAbsent(defaultTextColor);
@@ -274,6 +321,10 @@ public class ImageGeneration {
     }
 
     public static BufferedImage getPlayerInventoryImage(Inventory inventory, ItemStack puppetRightHand, ItemStack puppetLeftHand, ItemStack puppetHelmet, ItemStack puppetChestplate, ItemStack puppetLeggings, ItemStack puppetBoots, Player player) throws Exception {
+        return withResourceManager(() -> getPlayerInventoryImage0(inventory, puppetRightHand, puppetLeftHand, puppetHelmet, puppetChestplate, puppetLeggings, puppetBoots, player));
+    }
+
+    private static BufferedImage getPlayerInventoryImage0(Inventory inventory, ItemStack puppetRightHand, ItemStack puppetLeftHand, ItemStack puppetHelmet, ItemStack puppetChestplate, ItemStack puppetLeggings, ItemStack puppetBoots, Player player) throws Exception {
         InteractiveChatDiscordSrvAddon.plugin.imageCounter.incrementAndGet();
         InteractiveChatDiscordSrvAddon.plugin.inventoryImageCounter.incrementAndGet();
         Debug.debug("ImageGeneration creating player inventory image of " + player.getName());
@@ -292,13 +343,22 @@ public class ImageGeneration {
         }
 
         String key = PLAYER_INVENTORY_CACHE_KEY + HashUtils.createSha1(player.getUniqueId().toString(), inventory) + ImageUtils.hash(background);
-        if (!inventory.contains(Material.COMPASS) && !inventory.contains(Material.CLOCK) && Arrays.stream(inventory.getContents()).anyMatch(each -> each != null && NBTEditor.contains(each, "CustomModelData"))) {
+        boolean locationDependent = inventory.contains(Material.COMPASS) || inventory.contains(Material.CLOCK);
+        if (!locationDependent && Arrays.stream(inventory.getContents()).anyMatch(each -> each != null && NBTEditor.contains(each, "CustomModelData"))) {
             CacheObject<?> cache = resourceManager.get().getResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class).getCache(key);
             if (cache != null) {
                 return ImageUtils.copyImage((BufferedImage) cache.getObject());
             }
         }
 
+        if (locationDependent) {
+            return ImageUtils.copyImage(renderPlayerInventoryImage(inventory, puppetRightHand, puppetLeftHand, puppetHelmet, puppetChestplate, puppetLeggings, puppetBoots, player, background, key));
+        }
+        BufferedImage playerInventoryBackground = background;
+        return ImageUtils.copyImage(inFlightInventoryImages.call(key, () -> renderPlayerInventoryImage(inventory, puppetRightHand, puppetLeftHand, puppetHelmet, puppetChestplate, puppetLeggings, puppetBoots, player, playerInventoryBackground, key)));
+    }
+
+    private static BufferedImage renderPlayerInventoryImage(Inventory inventory, ItemStack puppetRightHand, ItemStack puppetLeftHand, ItemStack puppetHelmet, ItemStack puppetChestplate, ItemStack puppetLeggings, ItemStack puppetBoots, Player player, BufferedImage background, String key) throws Exception {
         BufferedImage target = new BufferedImage(background.getWidth(), background.getHeight(), BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = target.createGraphics();
         g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
@@ -336,7 +396,7 @@ public class ImageGeneration {
         //boots
         ItemStack boots = inventory.getItem(i);
         if (boots == null || boots.getType().equals(Material.AIR)) {
-            g.drawImage(resourceManager.get().getTextureManager().getTexture(ResourceRegistry.ITEM_TEXTURE_LOCATION + "empty_armor_slot_boots").getTexture(32, 32), 18, 126 - (SPACING * (i - 36)), 32, 32, null);
+            g.drawImage(resourceManager.get().getTextureManager().getTexture(ResourceRegistry.ITEM_TEXTURE_LOCATION + "empty_armor_slot_boots").getReadOnlyTexture(32, 32), 18, 126 - (SPACING * (i - 36)), 32, 32, null);
         } else {
             BufferedImage itemImage = getRawItemImage(boots, player);
             if (itemImage != null) {
@@ -348,7 +408,7 @@ public class ImageGeneration {
         //leggings
         ItemStack leggings = inventory.getItem(i);
         if (leggings == null || leggings.getType().equals(Material.AIR)) {
-            g.drawImage(resourceManager.get().getTextureManager().getTexture(ResourceRegistry.ITEM_TEXTURE_LOCATION + "empty_armor_slot_leggings").getTexture(32, 32), 18, 126 - (SPACING * (i - 36)), 32, 32, null);
+            g.drawImage(resourceManager.get().getTextureManager().getTexture(ResourceRegistry.ITEM_TEXTURE_LOCATION + "empty_armor_slot_leggings").getReadOnlyTexture(32, 32), 18, 126 - (SPACING * (i - 36)), 32, 32, null);
         } else {
             BufferedImage itemImage = getRawItemImage(leggings, player);
             if (itemImage != null) {
@@ -360,7 +420,7 @@ public class ImageGeneration {
         //chestplate
         ItemStack chestplate = inventory.getItem(i);
         if (chestplate == null || chestplate.getType().equals(Material.AIR)) {
-            g.drawImage(resourceManager.get().getTextureManager().getTexture(ResourceRegistry.ITEM_TEXTURE_LOCATION + "empty_armor_slot_chestplate").getTexture(32, 32), 18, 126 - (SPACING * (i - 36)), 32, 32, null);
+            g.drawImage(resourceManager.get().getTextureManager().getTexture(ResourceRegistry.ITEM_TEXTURE_LOCATION + "empty_armor_slot_chestplate").getReadOnlyTexture(32, 32), 18, 126 - (SPACING * (i - 36)), 32, 32, null);
         } else {
             BufferedImage itemImage = getRawItemImage(chestplate, player);
             if (itemImage != null) {
@@ -372,7 +432,7 @@ public class ImageGeneration {
         //helmet
         ItemStack helmet = inventory.getItem(i);
         if (helmet == null || helmet.getType().equals(Material.AIR)) {
-            g.drawImage(resourceManager.get().getTextureManager().getTexture(ResourceRegistry.ITEM_TEXTURE_LOCATION + "empty_armor_slot_helmet").getTexture(32, 32), 18, 126 - (SPACING * (i - 36)), 32, 32, null);
+            g.drawImage(resourceManager.get().getTextureManager().getTexture(ResourceRegistry.ITEM_TEXTURE_LOCATION + "empty_armor_slot_helmet").getReadOnlyTexture(32, 32), 18, 126 - (SPACING * (i - 36)), 32, 32, null);
         } else {
             BufferedImage itemImage = getRawItemImage(helmet, player);
             if (itemImage != null) {
@@ -383,7 +443,7 @@ public class ImageGeneration {
 
             ItemStack offhand = inventory.getItem(i);
             if (offhand == null || offhand.getType().equals(Material.AIR)) {
-                g.drawImage(resourceManager.get().getTextureManager().getTexture(ResourceRegistry.ITEM_TEXTURE_LOCATION + "empty_armor_slot_shield").getTexture(32, 32), 162, 126, 32, 32, null);
+                g.drawImage(resourceManager.get().getTextureManager().getTexture(ResourceRegistry.ITEM_TEXTURE_LOCATION + "empty_armor_slot_shield").getReadOnlyTexture(32, 32), 162, 126, 32, 32, null);
             } else {
                 BufferedImage itemImage = getRawItemImage(offhand, player);
                 if (itemImage != null) {
@@ -843,6 +903,10 @@ public class ImageGeneration {
     }
 
     public static BufferedImage getMapImage(byte[] colors, List<MapCursor> mapCursors, Player player) {
+        return withResourceManager(() -> getMapImage0(colors, mapCursors, player));
+    }
+
+    private static BufferedImage getMapImage0(byte[] colors, List<MapCursor> mapCursors, Player player) {
         if (colors != null && colors.length != 16384) {
             throw new IllegalArgumentException("Map color array is not null or of length 16384");
         }
@@ -940,6 +1004,10 @@ public class ImageGeneration {
     }
 
     public static BufferedImage getToolTipImage(List<ToolTipComponent<?>> prints, boolean allowLineBreaks) {
+        return withResourceManager(() -> getToolTipImage0(prints, allowLineBreaks));
+    }
+
+    private static BufferedImage getToolTipImage0(List<ToolTipComponent<?>> prints, boolean allowLineBreaks) {
         if (prints.isEmpty() || !(prints.get(0).getType().equals(ToolTipType.TEXT))) {
             Debug.debug("ImageGeneration creating tooltip image");
         } else {
@@ -1045,6 +1113,10 @@ public class ImageGeneration {
     }
 
     public static BufferedImage getTabListImage(List<Component> header, List<Component> footer, List<ValueTrios<Player, Component, Integer>> players, boolean showAvatar, boolean showPing, int maxPlayerDisplayed) {
+        return withResourceManager(() -> getTabListImage0(header, footer, players, showAvatar, showPing, maxPlayerDisplayed));
+    }
+
+    private static BufferedImage getTabListImage0(List<Component> header, List<Component> footer, List<ValueTrios<Player, Component, Integer>> players, boolean showAvatar, boolean showPing, int maxPlayerDisplayed) {
         players = players.subList(0, Math.min(players.size(), maxPlayerDisplayed));
         List<ValueTrios<BufferedImage, Integer, Color>> playerImages = new ArrayList<>(players.size());
         int masterOffsetX = 0;
@@ -1258,6 +1330,10 @@ public class ImageGeneration {
     }
 
     public static GenericContainerBackgroundResult getGenericContainerBackground(int rows, ContainerTitlePrintingFunction titlePrintingFunction) {
+        return withResourceManager(() -> getGenericContainerBackground0(rows, titlePrintingFunction));
+    }
+
+    private static GenericContainerBackgroundResult getGenericContainerBackground0(int rows, ContainerTitlePrintingFunction titlePrintingFunction) {
         rows = Math.max(rows, 1);
         BufferedImage image = resourceManager.get().getTextureManager().getTexture(ResourceRegistry.IC_GUI_TEXTURE_LOCATION + "generic_54").getTexture(356, 268);
         if (rows < 6) {
@@ -1314,6 +1390,10 @@ public class ImageGeneration {
     }
 
     public static BufferedImage getPingIcon(int ms, boolean useNoConnectionIcon) {
+        return withResourceManager(() -> getPingIcon0(ms, useNoConnectionIcon));
+    }
+
+    private static BufferedImage getPingIcon0(int ms, boolean useNoConnectionIcon) {
         BufferedImage icons = resourceManager.get().getTextureManager().getTexture(ResourceRegistry.GUI_TEXTURE_LOCATION + "icons").getTexture();
         int scale = icons.getWidth() / 256;
         if (ms < 0) {
@@ -1332,6 +1412,10 @@ public class ImageGeneration {
     }
 
     public static BufferedImage getAdvancementFrame(AdvancementType advancementType, boolean completed) {
+        return withResourceManager(() -> getAdvancementFrame0(advancementType, completed));
+    }
+
+    private static BufferedImage getAdvancementFrame0(AdvancementType advancementType, boolean completed) {
         if (advancementType.isLegacy()) {
             BufferedImage icons = resourceManager.get().getTextureManager().getTexture(ResourceRegistry.GUI_TEXTURE_LOCATION + "achievement/achievement_background").getTexture();
             int scale = icons.getWidth() / 256;
@@ -1349,6 +1433,10 @@ public class ImageGeneration {
     }
 
     public static BufferedImage getBundleContainerInterface(Player Player, List<ItemStack> items) throws IOException {
+        return withResourceManager(() -> getBundleContainerInterface0(Player, items));
+    }
+
+    private static BufferedImage getBundleContainerInterface0(Player Player, List<ItemStack> items) throws IOException {
         BufferedImage icons = resourceManager.get().getTextureManager().getTexture(ResourceRegistry.GUI_TEXTURE_LOCATION + "container/bundle").getTexture(256, 256);
         int gridWidth = BundleUtils.getContainerGridSizeX(items.size());
         int gridHeight = BundleUtils.getContainerGridSizeY(items.size());
@@ -1407,6 +1495,10 @@ public class ImageGeneration {
     }
 
     public static List<Supplier<BufferedImage>> getBookInterfaceSuppliers(List<Component> pages) {
+        return withResourceManager(() -> getBookInterfaceSuppliers0(pages));
+    }
+
+    private static List<Supplier<BufferedImage>> getBookInterfaceSuppliers0(List<Component> pages) {
         BufferedImage icons = resourceManager.get().getTextureManager().getTexture(ResourceRegistry.GUI_TEXTURE_LOCATION + "book").getTexture(512, 512);
         BufferedImage background = ImageUtils.copyAndGetSubImage(icons, 38, 0, 296, 364);
         BufferedImage nextPage = ImageUtils.copyAndGetSubImage(icons, 6, 388, 36, 20);
@@ -1416,7 +1508,7 @@ public class ImageGeneration {
         int i = 0;
         for (Component component : pages) {
             int pageNumber = ++i;
-            result.add(() -> {
+            Supplier<BufferedImage> pageSupplier = () -> {
                 BufferedImage page = ImageUtils.copyImage(background);
                 Graphics2D g = page.createGraphics();
                 if (pageNumber < totalPages) {
@@ -1452,12 +1544,20 @@ public class ImageGeneration {
 
                 g.dispose();
                 return page;
-            });
+            };
+            result.add(() -> withResourceManager(pageSupplier::get));
         }
 
         return result;
     }
 
+    @FunctionalInterface
+    private interface ResourceManagerTask<T, E extends Exception> {
+
+        T run() throws E;
+
+    }
+
     public static class GenericContainerBackgroundResult {
 
         private final BufferedImage image;
@@ -469,9 +469,13 @@ public class ImageUtils {
     }
 
     public static BufferedImage resizeImageAbs(BufferedImage source, int width, int height) {
+        return resizeImageAbs(source, width, height, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+    }
+
+    public static BufferedImage resizeImageAbs(BufferedImage source, int width, int height, Object interpolation) {
         BufferedImage b = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = b.createGraphics();
-        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
         g.drawImage(source, 0, 0, width, height, null);
         g.dispose();
         return b;
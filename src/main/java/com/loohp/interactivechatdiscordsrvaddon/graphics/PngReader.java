@@ -0,0 +1,311 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.loohp.interactivechatdiscordsrvaddon.graphics;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+public class PngReader {
+
+    private static final long SIGNATURE = 0x89504E470D0A1A0AL;
+
+    private static final int IHDR = 0x49484452;
+    private static final int PLTE = 0x504C5445;
+    private static final int TRNS = 0x74524E53;
+    private static final int IDAT = 0x49444154;
+    private static final int IEND = 0x49454E44;
+
+    private static final int GRAY = 0;
+    private static final int RGB = 2;
+    private static final int INDEXED = 3;
+    private static final int GRAY_ALPHA = 4;
+    private static final int RGB_ALPHA = 6;
+
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(Inflater::new);
+    private static final ThreadLocal<byte[][]> SCANLINES = ThreadLocal.withInitial(() -> new byte[2][0]);
+
+    public static BufferedImage read(InputStream inputStream) throws IOException {
+        byte[] data = inputStream.readAllBytes();
+        BufferedImage image = decode(data);
+        if (image != null) {
+            return image;
+        }
+        return ImageIO.read(new ByteArrayInputStream(data));
+    }
+
+    public static BufferedImage decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (data.length < 8 || buffer.getLong() != SIGNATURE) {
+            return null;
+        }
+        int width = 0;
+        int height = 0;
+        int bitDepth = 0;
+        int colorType = -1;
+        byte[] palette = null;
+        byte[] transparency = null;
+        List<int[]> imageData = new ArrayList<>();
+        boolean end = false;
+        while (!end && buffer.remaining() >= 12) {
+            int length = buffer.getInt();
+            int type = buffer.getInt();
+            int offset = buffer.position();
+            if (length < 0 || length > buffer.remaining() - 4) {
+                return null;
+            }
+            switch (type) {
+                case IHDR -> {
+                    if (length != 13) {
+                        return null;
+                    }
+                    width = buffer.getInt();
+                    height = buffer.getInt();
+                    bitDepth = buffer.get() & 0xFF;
+                    colorType = buffer.get() & 0xFF;
+                    int compression = buffer.get() & 0xFF;
+                    int filter = buffer.get() & 0xFF;
+                    int interlace = buffer.get() & 0xFF;
+                    if (compression != 0 || filter != 0 || interlace != 0) {
+                        return null;
+                    }
+                }
+                case PLTE -> palette = Arrays.copyOfRange(data, offset, offset + length);
+                case TRNS -> transparency = Arrays.copyOfRange(data, offset, offset + length);
+                case IDAT -> imageData.add(new int[] {offset, length});
+                case IEND -> end = true;
+            }
+            buffer.position(offset + length + 4);
+        }
+        if (width <= 0 || height <= 0 || (long) width * (long) height > Integer.MAX_VALUE || imageData.isEmpty() || !isSupported(colorType, bitDepth, palette, transparency)) {
+            return null;
+        }
+        try {
+            return decodeImageData(data, imageData, width, height, bitDepth, colorType, palette, transparency);
+        } catch (DataFormatException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSupported(int colorType, int bitDepth, byte[] palette, byte[] transparency) {
+        return switch (colorType) {
+            // ImageIO decodes 8 and 16 bit gray into a linear gray color space, leave those to it so pixels stay the same
+            case GRAY -> bitDepth == 1 || bitDepth == 2 || bitDepth == 4;
+            case RGB -> bitDepth == 8 || (bitDepth == 16 && transparency == null);
+            case INDEXED -> (bitDepth == 1 || bitDepth == 2 || bitDepth == 4 || bitDepth == 8) && palette != null;
+            case RGB_ALPHA -> bitDepth == 8 || bitDepth == 16;
+            default -> false;
+        };
+    }
+
+    private static int getChannels(int colorType) {
+        return switch (colorType) {
+            case RGB -> 3;
+            case GRAY_ALPHA -> 2;
+            case RGB_ALPHA -> 4;
+            default -> 1;
+        };
+    }
+
+    private static BufferedImage decodeImageData(byte[] data, List<int[]> imageData, int width, int height, int bitDepth, int colorType, byte[] palette, byte[] transparency) throws DataFormatException {
+        int bitsPerPixel = getChannels(colorType) * bitDepth;
+        int rowBytes = (int) (((long) width * bitsPerPixel + 7) / 8);
+        int bytesPerPixel = Math.max(1, bitsPerPixel / 8);
+
+        byte[][] scanlines = SCANLINES.get();
+        if (scanlines[0].length < rowBytes + 1) {
+            scanlines[0] = new byte[rowBytes + 1];
+            scanlines[1] = new byte[rowBytes + 1];
+        }
+        byte[] current = scanlines[0];
+        byte[] previous = scanlines[1];
+        Arrays.fill(previous, 0, rowBytes + 1, (byte) 0);
+
+        int[] colors = colorType == INDEXED ? createPaletteColors(palette, transparency) : null;
+        int transparentColor = createTransparentColor(colorType, transparency);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        Inflater inflater = INFLATERS.get();
+        inflater.reset();
+        int chunk = 0;
+        for (int y = 0; y < height; y++) {
+            int read = 0;
+            while (read < rowBytes + 1) {
+                if (inflater.needsInput()) {
+                    if (chunk >= imageData.size()) {
+                        return null;
+                    }
+                    int[] range = imageData.get(chunk++);
+                    inflater.setInput(data, range[0], range[1]);
+                    continue;
+                }
+                int inflated = inflater.inflate(current, read, rowBytes + 1 - read);
+                if (inflated == 0 && (inflater.finished() || inflater.needsDictionary())) {
+                    return null;
+                }
+                read += inflated;
+            }
+            if (!unfilter(current, previous, rowBytes, bytesPerPixel)) {
+                return null;
+            }
+            convertRow(current, pixels, y * width, width, bitDepth, colorType, colors, transparentColor);
+            byte[] swap = current;
+            current = previous;
+            previous = swap;
+        }
+        return image;
+    }
+
+    private static boolean unfilter(byte[] row, byte[] previous, int rowBytes, int bytesPerPixel) {
+        switch (row[0]) {
+            case 0 -> {
+            }
+            case 1 -> {
+                for (int i = 1 + bytesPerPixel; i <= rowBytes; i++) {
+                    row[i] += row[i - bytesPerPixel];
+                }
+            }
+            case 2 -> {
+                for (int i = 1; i <= rowBytes; i++) {
+                    row[i] += previous[i];
+                }
+            }
+            case 3 -> {
+                for (int i = 1; i <= rowBytes; i++) {
+                    int left = i > bytesPerPixel ? row[i - bytesPerPixel] & 0xFF : 0;
+                    row[i] += (left + (previous[i] & 0xFF)) >>> 1;
+                }
+            }
+            case 4 -> {
+                for (int i = 1; i <= rowBytes; i++) {
+                    int left = i > bytesPerPixel ? row[i - bytesPerPixel] & 0xFF : 0;
+                    int up = previous[i] & 0xFF;
+                    int upLeft = i > bytesPerPixel ? previous[i - bytesPerPixel] & 0xFF : 0;
+                    int estimate = left + up - upLeft;
+                    int distanceLeft = Math.abs(estimate - left);
+                    int distanceUp = Math.abs(estimate - up);
+                    int distanceUpLeft = Math.abs(estimate - upLeft);
+                    if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+                        row[i] += left;
+                    } else if (distanceUp <= distanceUpLeft) {
+                        row[i] += up;
+                    } else {
+                        row[i] += upLeft;
+                    }
+                }
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void convertRow(byte[] row, int[] pixels, int offset, int width, int bitDepth, int colorType, int[] colors, int transparentColor) {
+        switch (colorType) {
+            case GRAY -> {
+                int max = (1 << bitDepth) - 1;
+                for (int x = 0; x < width; x++) {
+                    int sample = getSample(row, x, bitDepth);
+                    int gray = sample * 255 / max;
+                    int alpha = sample == transparentColor ? 0 : 0xFF;
+                    pixels[offset + x] = (alpha << 24) | (gray << 16) | (gray << 8) | gray;
+                }
+            }
+            case RGB -> {
+                int stride = bitDepth / 8;
+                for (int x = 0, i = 1; x < width; x++, i += stride * 3) {
+                    int rgb = (getChannel(row, i, stride) << 16) | (getChannel(row, i + stride, stride) << 8) | getChannel(row, i + stride * 2, stride);
+                    pixels[offset + x] = rgb == transparentColor ? rgb : 0xFF000000 | rgb;
+                }
+            }
+            case INDEXED -> {
+                for (int x = 0; x < width; x++) {
+                    pixels[offset + x] = colors[getSample(row, x, bitDepth)];
+                }
+            }
+            case RGB_ALPHA -> {
+                int stride = bitDepth / 8;
+                for (int x = 0, i = 1; x < width; x++, i += stride * 4) {
+                    pixels[offset + x] = (getChannel(row, i + stride * 3, stride) << 24) | (getChannel(row, i, stride) << 16) | (getChannel(row, i + stride, stride) << 8) | getChannel(row, i + stride * 2, stride);
+                }
+            }
+        }
+    }
+
+    private static int getSample(byte[] row, int index, int bitDepth) {
+        switch (bitDepth) {
+            case 8 -> {
+                return row[1 + index] & 0xFF;
+            }
+            case 16 -> {
+                return getChannel(row, 1 + index * 2, 2);
+            }
+            default -> {
+                int bitOffset = index * bitDepth;
+                int value = row[1 + (bitOffset >> 3)] & 0xFF;
+                return (value >> (8 - bitDepth - (bitOffset & 7))) & ((1 << bitDepth) - 1);
+            }
+        }
+    }
+
+    private static int getChannel(byte[] row, int index, int stride) {
+        if (stride == 1) {
+            return row[index] & 0xFF;
+        }
+        int value = ((row[index] & 0xFF) << 8) | (row[index + 1] & 0xFF);
+        return (value * 255 + 32767) / 65535;
+    }
+
+    private static int[] createPaletteColors(byte[] palette, byte[] transparency) {
+        int[] colors = new int[256];
+        int entries = Math.min(256, palette.length / 3);
+        for (int i = 0; i < entries; i++) {
+            int alpha = transparency != null && i < transparency.length ? transparency[i] & 0xFF : 0xFF;
+            colors[i] = (alpha << 24) | ((palette[i * 3] & 0xFF) << 16) | ((palette[i * 3 + 1] & 0xFF) << 8) | (palette[i * 3 + 2] & 0xFF);
+        }
+        return colors;
+    }
+
+    private static int createTransparentColor(int colorType, byte[] transparency) {
+        if (transparency == null) {
+            return -1;
+        }
+        if (colorType == GRAY && transparency.length >= 2) {
+            return ((transparency[0] & 0xFF) << 8) | (transparency[1] & 0xFF);
+        }
+        if (colorType == RGB && transparency.length >= 6) {
+            return ((transparency[1] & 0xFF) << 16) | ((transparency[3] & 0xFF) << 8) | (transparency[5] & 0xFF);
+        }
+        return -1;
+    }
+
+}
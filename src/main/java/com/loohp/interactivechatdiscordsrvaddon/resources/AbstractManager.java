@@ -42,6 +42,10 @@ public abstract class AbstractManager implements IAbstractManager {
 
     protected abstract void loadDirectory(String namespace, ResourcePackFile root, Object... meta);
 
+    protected Runnable prepareDirectory(String namespace, ResourcePackFile root, Object... meta) {
+        return () -> loadDirectory(namespace, root, meta);
+    }
+
     protected abstract void filterResources(Pattern namespace, Pattern path);
 
     protected abstract void reload();
@@ -20,38 +20,129 @@
 
 package com.loohp.interactivechatdiscordsrvaddon.resources;
 
-import com.loohp.interactivechatdiscordsrvaddon.utils.FileUtils;
-import org.mapdb.DB;
-import org.mapdb.DBMaker;
-import org.mapdb.HTreeMap;
-import org.mapdb.Serializer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.loohp.interactivechatdiscordsrvaddon.resources.ModelRenderer.RenderResult;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 public class CacheManager implements ICacheManager {
 
-    private final File folder;
-    private final DB db;
-    private final HTreeMap<String, byte[]> cacheObjectMap;
+    public static final long DEFAULT_MEMORY_CACHE_SIZE = 64L * 1024 * 1024;
+    public static final long DEFAULT_MAX_STORE_SIZE = 512L * 1024 * 1024;
+    public static final Duration DEFAULT_NEGATIVE_CACHE_TIMEOUT = Duration.ofSeconds(30);
+    public static final long MAX_NEGATIVE_CACHE_ENTRIES = 16384;
+    public static final double STORE_COMPACT_THRESHOLD = 0.4;
+    public static final long EXPIRE_SWEEP_PERIOD = 10000;
+    public static final String NAMESPACE_SEPARATOR = "#";
+    public static final long DEFAULT_MAX_PENDING_WRITES_SIZE = 32L * 1024 * 1024;
+    public static final long WRITE_BEHIND_DELAY = 100;
+    public static final int WRITE_BEHIND_BATCH_SIZE = 64;
+
+    private static final int OBJECT_BASE_WEIGHT = 64;
+    private static final int UNKNOWN_OBJECT_WEIGHT = 1024;
+    private static final CacheObject<?> PENDING_REMOVAL = new CacheObject<>(0, null);
+    private static final HashFunction STORE_KEY_HASH_FUNCTION = Hashing.murmur3_128();
+
+    private static int estimateWeight(CacheObject<?> cacheObject) {
+        Object object = cacheObject.getObject();
+        long weight = OBJECT_BASE_WEIGHT;
+        if (object == null) {
+            return (int) weight;
+        } else if (object instanceof String str) {
+            weight += str.length() * 2L;
+        } else if (object instanceof BufferedImage image) {
+            weight += (long) image.getWidth() * image.getHeight() * 4;
+        } else if (object instanceof RenderResult renderResult) {
+            if (renderResult.isSuccessful()) {
+                BufferedImage image = renderResult.getRawImage();
+                weight += (long) image.getWidth() * image.getHeight() * 4;
+            } else {
+                weight += renderResult.getRejectedReason().length() * 2L;
+            }
+        } else {
+            weight += UNKNOWN_OBJECT_WEIGHT;
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private final CacheStore store;
+    private final Cache<String, CacheObject<?>> memoryCache;
+    private final Cache<String, String> negativeCache;
+    private final Map<String, CacheObject<?>> pendingWrites;
+    private final AtomicLong pendingWritesSize;
+    private final AtomicBoolean pendingWritesScheduled;
+    private final long maxPendingWritesSize;
     private final ScheduledExecutorService service;
+    private final long timeout;
+    private final boolean persistent;
+    private final Supplier<String> namespaceSupplier;
+    private final CacheStats stats;
     private final AtomicBoolean isValid;
 
     public CacheManager(File folder, Duration timeout) {
-        this.folder = folder;
-        if (folder.exists()) {
-            FileUtils.removeFolderRecursively(folder);
-        }
-        folder.mkdirs();
-        this.db = DBMaker.fileDB(new File(folder, "data.dat")).fileMmapEnableIfSupported().fileDeleteAfterClose().make();
-        this.cacheObjectMap = db.hashMap("cache", Serializer.STRING, Serializer.BYTE_ARRAY).createOrOpen();
+        this(folder, timeout, DEFAULT_MAX_STORE_SIZE);
+    }
+
+    public CacheManager(File folder, Duration timeout, long maxStoreSize) {
+        this(folder, timeout, maxStoreSize, DEFAULT_MEMORY_CACHE_SIZE, false, null);
+    }
+
+    public CacheManager(File folder, Duration timeout, long maxStoreSize, long memoryCacheSize, boolean persistent, Supplier<String> namespaceSupplier) {
+        this(folder, timeout, DEFAULT_NEGATIVE_CACHE_TIMEOUT, maxStoreSize, memoryCacheSize, persistent, namespaceSupplier);
+    }
+
+    public CacheManager(File folder, Duration timeout, Duration negativeTimeout, long maxStoreSize, long memoryCacheSize, boolean persistent, Supplier<String> namespaceSupplier) {
+        this(folder, timeout, negativeTimeout, maxStoreSize, memoryCacheSize, persistent, namespaceSupplier, Collections.emptyList());
+    }
+
+    public CacheManager(File folder, Duration timeout, Duration negativeTimeout, long maxStoreSize, long memoryCacheSize, boolean persistent, Supplier<String> namespaceSupplier, Collection<String> keyFamilies) {
+        this.timeout = timeout.toMillis();
+        this.persistent = persistent;
+        this.namespaceSupplier = namespaceSupplier;
+        this.pendingWrites = new ConcurrentHashMap<>();
+        this.pendingWritesSize = new AtomicLong(0);
+        this.pendingWritesScheduled = new AtomicBoolean(false);
+        this.maxPendingWritesSize = DEFAULT_MAX_PENDING_WRITES_SIZE;
+        this.store = CacheStore.acquire(folder, this.timeout, maxStoreSize, persistent);
         this.service = Executors.newSingleThreadScheduledExecutor();
-        service.scheduleAtFixedRate(cacheObjectMap::expireEvict, 5, 5, TimeUnit.MINUTES);
+        this.memoryCache = CacheBuilder.newBuilder()
+                .maximumWeight(memoryCacheSize)
+                .weigher((String key, CacheObject<?> value) -> estimateWeight(value))
+                .expireAfterWrite(timeout)
+                .removalListener(this::spillToStore)
+                .build();
+        this.negativeCache = CacheBuilder.newBuilder()
+                .maximumSize(MAX_NEGATIVE_CACHE_ENTRIES)
+                .expireAfterWrite(negativeTimeout)
+                .build();
+        this.stats = new CacheStats(keyFamilies, memoryCache::size, store::size, negativeCache::size, store::getStoreBytes);
+        store.addListener(stats);
+        service.scheduleAtFixedRate(memoryCache::cleanUp, 1, 1, TimeUnit.MINUTES);
+        service.scheduleAtFixedRate(negativeCache::cleanUp, 1, 1, TimeUnit.MINUTES);
         this.isValid = new AtomicBoolean(true);
     }
 
@@ -60,17 +151,90 @@ public class CacheManager implements ICacheManager {
         return IDENTIFIER;
     }
 
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    private String namespacedKey(String key) {
+        if (namespaceSupplier == null) {
+            return key;
+        }
+        return namespaceSupplier.get() + NAMESPACE_SEPARATOR + key;
+    }
+
+    private byte[] storeKey(String key) {
+        long namespaceHash = 0;
+        if (namespaceSupplier != null) {
+            int index = key.indexOf(NAMESPACE_SEPARATOR);
+            namespaceHash = namespaceHash(key.substring(0, index));
+            key = key.substring(index + NAMESPACE_SEPARATOR.length());
+        }
+        return ByteBuffer.allocate(24).putLong(namespaceHash).put(STORE_KEY_HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asBytes()).array();
+    }
+
+    private static long namespaceHash(String namespace) {
+        return STORE_KEY_HASH_FUNCTION.hashString(namespace, StandardCharsets.UTF_8).asLong();
+    }
+
+    public void scheduleStaleEntriesCollection() {
+        if (!isValid.get() || namespaceSupplier == null) {
+            return;
+        }
+        long namespaceHash = namespaceHash(namespaceSupplier.get());
+        service.execute(() -> store.removeIf(key -> ByteBuffer.wrap(key).getLong() != namespaceHash, isValid::get));
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return stats;
+    }
+
     @Override
     public CacheObject<?> getCache(String key) {
         if (!isValid.get()) {
             return null;
         }
-        byte[] data = cacheObjectMap.get(key);
+        CacheObject<?> cacheObject = getCache0(namespacedKey(key));
+        if (cacheObject == null) {
+            stats.recordMiss(key);
+        } else {
+            stats.recordHit(key);
+        }
+        return cacheObject;
+    }
+
+    private CacheObject<?> getCache0(String key) {
+        CacheObject<?> cacheObject = memoryCache.getIfPresent(key);
+        if (cacheObject != null) {
+            if (isExpired(cacheObject)) {
+                memoryCache.invalidate(key);
+                return null;
+            }
+            return cacheObject;
+        }
+        cacheObject = pendingWrites.get(key);
+        if (cacheObject != null) {
+            if (cacheObject == PENDING_REMOVAL || isExpired(cacheObject)) {
+                return null;
+            }
+            memoryCache.put(key, cacheObject);
+            return cacheObject;
+        }
+        byte[] data = store.get(storeKey(key));
         if (data == null) {
             return null;
         }
         try {
-            return CacheObject.deserialize(data);
+            long start = System.nanoTime();
+            cacheObject = CacheObject.deserialize(data);
+            stats.recordLoadTime(System.nanoTime() - start);
+            if (isExpired(cacheObject)) {
+                enqueueWrite(key, PENDING_REMOVAL);
+                return null;
+            }
+            cacheObject.setStored(true);
+            memoryCache.put(key, cacheObject);
+            return cacheObject;
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -82,11 +246,9 @@ public class CacheManager implements ICacheManager {
         if (!isValid.get()) {
             return;
         }
-        try {
-            cacheObjectMap.put(key, new CacheObject<>(System.currentTimeMillis(), value).serialize());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        key = namespacedKey(key);
+        memoryCache.put(key, new CacheObject<>(System.currentTimeMillis(), value));
+        enqueueWrite(key, PENDING_REMOVAL);
     }
 
     @Override
@@ -94,7 +256,17 @@ public class CacheManager implements ICacheManager {
         if (!isValid.get()) {
             return null;
         }
-        byte[] data = cacheObjectMap.remove(key);
+        key = namespacedKey(key);
+        CacheObject<?> cacheObject = memoryCache.asMap().remove(key);
+        CacheObject<?> pending = pendingWrites.get(key);
+        byte[] data = store.get(storeKey(key));
+        enqueueWrite(key, PENDING_REMOVAL);
+        if (cacheObject != null) {
+            return cacheObject;
+        }
+        if (pending != null && pending != PENDING_REMOVAL) {
+            return pending;
+        }
         if (data == null) {
             return null;
         }
@@ -106,23 +278,140 @@ public class CacheManager implements ICacheManager {
         }
     }
 
+    @Override
+    public String getNegativeCache(String key) {
+        if (!isValid.get()) {
+            return null;
+        }
+        String reason = negativeCache.getIfPresent(key);
+        if (reason == null) {
+            stats.recordNegativeMiss();
+        } else {
+            stats.recordNegativeHit();
+        }
+        return reason;
+    }
+
+    @Override
+    public void putNegativeCache(String key, String reason) {
+        if (!isValid.get()) {
+            return;
+        }
+        negativeCache.put(key, reason);
+    }
+
     @Override
     public void clearAllCache() {
         if (!isValid.get()) {
             return;
         }
-        cacheObjectMap.clear();
+        memoryCache.invalidateAll();
+        negativeCache.invalidateAll();
+        pendingWrites.clear();
+        pendingWritesSize.set(0);
+        try {
+            service.execute(store::clear);
+        } catch (RejectedExecutionException ignore) {
+        }
+    }
+
+    private boolean isExpired(CacheObject<?> cacheObject) {
+        return System.currentTimeMillis() - cacheObject.getTimeCreated() > timeout;
+    }
+
+    private void spillToStore(RemovalNotification<String, CacheObject<?>> notification) {
+        if (notification.getCause() != RemovalCause.SIZE || !isValid.get()) {
+            return;
+        }
+        stats.recordMemoryEviction();
+        String key = notification.getKey();
+        CacheObject<?> cacheObject = notification.getValue();
+        if (key == null || cacheObject == null || cacheObject.isStored() || isExpired(cacheObject)) {
+            return;
+        }
+        enqueueWrite(key, cacheObject);
+    }
+
+    private void enqueueWrite(String key, CacheObject<?> cacheObject) {
+        int weight = estimateWeight(cacheObject);
+        if (cacheObject != PENDING_REMOVAL && pendingWritesSize.get() + weight > maxPendingWritesSize) {
+            return;
+        }
+        CacheObject<?> previous = pendingWrites.put(key, cacheObject);
+        pendingWritesSize.addAndGet(previous == null ? weight : weight - estimateWeight(previous));
+        if (isValid.get() && pendingWritesScheduled.compareAndSet(false, true)) {
+            try {
+                service.schedule(this::flushPendingWrites, WRITE_BEHIND_DELAY, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignore) {
+            }
+        }
+    }
+
+    private void flushPendingWrites() {
+        pendingWritesScheduled.set(false);
+        List<Map.Entry<String, CacheObject<?>>> written = new ArrayList<>(WRITE_BEHIND_BATCH_SIZE);
+        Map<byte[], byte[]> batch = new HashMap<>();
+        for (Map.Entry<String, CacheObject<?>> entry : pendingWrites.entrySet()) {
+            String key = entry.getKey();
+            CacheObject<?> cacheObject = entry.getValue();
+            if (cacheObject == PENDING_REMOVAL) {
+                store.remove(storeKey(key));
+            } else if (!isExpired(cacheObject)) {
+                try {
+                    long start = System.nanoTime();
+                    batch.put(storeKey(key), cacheObject.serialize());
+                    stats.recordSerializationTime(System.nanoTime() - start);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            written.add(Map.entry(key, cacheObject));
+            if (written.size() >= WRITE_BEHIND_BATCH_SIZE) {
+                commitPendingWrites(batch, written);
+            }
+        }
+        commitPendingWrites(batch, written);
+    }
+
+    private void commitPendingWrites(Map<byte[], byte[]> batch, List<Map.Entry<String, CacheObject<?>>> written) {
+        if (!batch.isEmpty()) {
+            store.putAll(batch);
+            batch.clear();
+        }
+        for (Map.Entry<String, CacheObject<?>> entry : written) {
+            CacheObject<?> cacheObject = entry.getValue();
+            if (cacheObject != PENDING_REMOVAL) {
+                cacheObject.setStored(true);
+            }
+            if (pendingWrites.remove(entry.getKey(), cacheObject)) {
+                pendingWritesSize.addAndGet(-estimateWeight(cacheObject));
+            }
+        }
+        written.clear();
     }
 
     @Override
     public synchronized void close() {
         if (isValid.getAndSet(false)) {
             service.shutdown();
-            cacheObjectMap.close();
-            db.close();
-            if (folder.exists()) {
-                FileUtils.removeFolderRecursively(folder);
+            try {
+                service.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignore) {
+            }
+            if (persistent) {
+                for (Map.Entry<String, CacheObject<?>> entry : memoryCache.asMap().entrySet()) {
+                    CacheObject<?> cacheObject = entry.getValue();
+                    if (!cacheObject.isStored()) {
+                        pendingWrites.put(entry.getKey(), cacheObject);
+                    }
+                }
+                flushPendingWrites();
             }
+            memoryCache.invalidateAll();
+            negativeCache.invalidateAll();
+            pendingWrites.clear();
+            store.removeListener(stats);
+            CacheStore.release(store);
         }
     }
 
@@ -22,13 +22,99 @@ package com.loohp.interactivechatdiscordsrvaddon.resources;
 
 import com.loohp.interactivechatdiscordsrvaddon.graphics.ImageUtils;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ModelRenderer.RenderResult;
+import net.jpountz.lz4.LZ4Factory;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 public class CacheObject<T> {
 
+    public static final byte RASTER_FORMAT_VERSION = 1;
+
+    public static final byte RASTER_COMPRESSION_NONE = 0;
+    public static final byte RASTER_COMPRESSION_LZ4 = 1;
+
+    private static final int[] ARGB_MASKS = new int[] {0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000};
+
+    private static LZ4Factory lz4Factory;
+
+    static {
+        try {
+            lz4Factory = LZ4Factory.fastestInstance();
+        } catch (Throwable e) {
+            lz4Factory = null;
+        }
+    }
+
+    protected static void writeRaster(DataOutputStream outputStream, BufferedImage image) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels;
+        DataBuffer dataBuffer = image.getRaster().getDataBuffer();
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB && dataBuffer instanceof DataBufferInt && dataBuffer.getNumBanks() == 1 && dataBuffer.getOffset() == 0 && dataBuffer.getSize() == width * height && image.getRaster().getParent() == null) {
+            pixels = ((DataBufferInt) dataBuffer).getData();
+        } else {
+            pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(pixels.length * 4);
+        buffer.asIntBuffer().put(pixels);
+        byte[] raw = buffer.array();
+
+        outputStream.writeByte(RASTER_FORMAT_VERSION);
+        outputStream.writeInt(width);
+        outputStream.writeInt(height);
+        if (lz4Factory == null) {
+            outputStream.writeByte(RASTER_COMPRESSION_NONE);
+            outputStream.writeInt(raw.length);
+            outputStream.write(raw);
+        } else {
+            byte[] compressed = lz4Factory.fastCompressor().compress(raw);
+            outputStream.writeByte(RASTER_COMPRESSION_LZ4);
+            outputStream.writeInt(compressed.length);
+            outputStream.write(compressed);
+        }
+    }
+
+    protected static BufferedImage readRaster(DataInputStream inputStream) throws IOException {
+        byte version = inputStream.readByte();
+        if (version != RASTER_FORMAT_VERSION) {
+            throw new IOException("Unsupported raster format version " + version);
+        }
+        int width = inputStream.readInt();
+        int height = inputStream.readInt();
+        byte compression = inputStream.readByte();
+        int length = inputStream.readInt();
+        byte[] data = new byte[length];
+        inputStream.readFully(data);
+        int rawLength = width * height * 4;
+        byte[] raw;
+        switch (compression) {
+            case RASTER_COMPRESSION_NONE -> raw = data;
+            case RASTER_COMPRESSION_LZ4 -> {
+                if (lz4Factory == null) {
+                    throw new IOException("LZ4 is not available to decompress raster");
+                }
+                raw = lz4Factory.fastDecompressor().decompress(data, rawLength);
+            }
+            default -> throw new IOException("Unsupported raster compression " + compression);
+        }
+        if (raw.length != rawLength) {
+            throw new IOException("Raster size mismatch, expected " + rawLength + " bytes but found " + raw.length);
+        }
+        int[] pixels = new int[width * height];
+        ByteBuffer.wrap(raw).asIntBuffer().get(pixels);
+        DataBufferInt dataBuffer = new DataBufferInt(pixels, pixels.length);
+        WritableRaster raster = Raster.createPackedRaster(dataBuffer, width, height, width, ARGB_MASKS, null);
+        return new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+    }
+
     protected static CacheObject<?> deserialize(byte[] data) throws Exception {
         try (DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(data))) {
             long timeCreated = inputStream.readLong();
@@ -67,6 +153,18 @@ public class CacheObject<T> {
                     Class<?> clazz = Class.forName(new String(name, StandardCharsets.UTF_8));
                     return new CacheObject<>(timeCreated, clazz.getConstructor(InputStream.class).newInstance(inputStream));
                 }
+                case 5 -> {
+                    return new CacheObject<>(timeCreated, readRaster(inputStream));
+                }
+                case 6 -> {
+                    if (inputStream.readBoolean()) {
+                        return new CacheObject<>(timeCreated, new RenderResult(readRaster(inputStream)));
+                    } else {
+                        byte[] dataArray = new byte[data.length - 10];
+                        inputStream.readFully(dataArray);
+                        return new CacheObject<>(timeCreated, new RenderResult(new String(dataArray, StandardCharsets.UTF_8)));
+                    }
+                }
                 default -> {
                     throw new IllegalArgumentException("Illegal class type " + type);
                 }
@@ -76,10 +174,12 @@ public class CacheObject<T> {
 
     private final long timeCreated;
     private final T object;
+    private volatile boolean stored;
 
     protected CacheObject(long timeCreated, T object) {
         this.timeCreated = timeCreated;
         this.object = object;
+        this.stored = false;
     }
 
     public long getTimeCreated() {
@@ -90,6 +190,14 @@ public class CacheObject<T> {
         return object;
     }
 
+    protected boolean isStored() {
+        return stored;
+    }
+
+    protected void setStored(boolean stored) {
+        this.stored = stored;
+    }
+
     protected byte[] serialize() throws IOException {
         try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
              DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
@@ -98,13 +206,13 @@ public class CacheObject<T> {
                 dataOutputStream.writeByte(0);
                 dataOutputStream.write(((String) object).getBytes(StandardCharsets.UTF_8));
             } else if (object instanceof BufferedImage) {
-                dataOutputStream.writeByte(1);
-                dataOutputStream.write(ImageUtils.toArray((BufferedImage) object));
+                dataOutputStream.writeByte(5);
+                writeRaster(dataOutputStream, (BufferedImage) object);
             } else if (object instanceof RenderResult renderResult) {
-                dataOutputStream.writeByte(2);
+                dataOutputStream.writeByte(6);
                 if (renderResult.isSuccessful()) {
                     dataOutputStream.writeBoolean(true);
-                    dataOutputStream.write(ImageUtils.toArray(renderResult.getImage()));
+                    writeRaster(dataOutputStream, renderResult.getRawImage());
                 } else {
                     dataOutputStream.writeBoolean(false);
                     dataOutputStream.write(renderResult.getRejectedReason().getBytes(StandardCharsets.UTF_8));
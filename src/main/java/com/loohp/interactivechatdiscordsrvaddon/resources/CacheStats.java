@@ -0,0 +1,250 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class CacheStats {
+
+    public static final String OTHER_KEY_FAMILY = "Other";
+
+    public static final CacheStats EMPTY_INSTANCE = new CacheStats(Collections.emptyList(), () -> 0, () -> 0, () -> 0, () -> 0);
+
+    private final List<String> keyFamilies;
+    private final Map<String, LongAdder> hits;
+    private final Map<String, LongAdder> misses;
+    private final LongAdder negativeHits;
+    private final LongAdder negativeMisses;
+    private final TimeHistogram loadTimes;
+    private final TimeHistogram serializationTimes;
+    private final LongAdder memoryEvictions;
+    private final LongAdder storeEvictions;
+    private final LongSupplier memoryEntryCount;
+    private final LongSupplier storeEntryCount;
+    private final LongSupplier negativeEntryCount;
+    private final LongSupplier storeBytes;
+
+    public CacheStats(Collection<String> keyFamilies, LongSupplier memoryEntryCount, LongSupplier storeEntryCount, LongSupplier negativeEntryCount, LongSupplier storeBytes) {
+        List<String> families = new ArrayList<>(keyFamilies);
+        families.remove(OTHER_KEY_FAMILY);
+        families.add(OTHER_KEY_FAMILY);
+        this.keyFamilies = Collections.unmodifiableList(families);
+        this.hits = new LinkedHashMap<>();
+        this.misses = new LinkedHashMap<>();
+        for (String family : this.keyFamilies) {
+            hits.put(family, new LongAdder());
+            misses.put(family, new LongAdder());
+        }
+        this.negativeHits = new LongAdder();
+        this.negativeMisses = new LongAdder();
+        this.loadTimes = new TimeHistogram();
+        this.serializationTimes = new TimeHistogram();
+        this.memoryEvictions = new LongAdder();
+        this.storeEvictions = new LongAdder();
+        this.memoryEntryCount = memoryEntryCount;
+        this.storeEntryCount = storeEntryCount;
+        this.negativeEntryCount = negativeEntryCount;
+        this.storeBytes = storeBytes;
+    }
+
+    public List<String> getKeyFamilies() {
+        return keyFamilies;
+    }
+
+    public String getKeyFamily(String key) {
+        for (String family : keyFamilies) {
+            if (key.startsWith(family) || key.endsWith(family)) {
+                return family;
+            }
+        }
+        return OTHER_KEY_FAMILY;
+    }
+
+    public void recordHit(String key) {
+        hits.get(getKeyFamily(key)).increment();
+    }
+
+    public void recordMiss(String key) {
+        misses.get(getKeyFamily(key)).increment();
+    }
+
+    public void recordNegativeHit() {
+        negativeHits.increment();
+    }
+
+    public void recordNegativeMiss() {
+        negativeMisses.increment();
+    }
+
+    public void recordLoadTime(long nanos) {
+        loadTimes.record(nanos);
+    }
+
+    public void recordSerializationTime(long nanos) {
+        serializationTimes.record(nanos);
+    }
+
+    public void recordMemoryEviction() {
+        memoryEvictions.increment();
+    }
+
+    public void recordStoreEviction() {
+        storeEvictions.increment();
+    }
+
+    public long getHitCount(String family) {
+        LongAdder adder = hits.get(family);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long getMissCount(String family) {
+        LongAdder adder = misses.get(family);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long getHitCount() {
+        return hits.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getMissCount() {
+        return misses.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long requestCount = hitCount + getMissCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / (double) requestCount;
+    }
+
+    public Map<String, Long> getHitCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        hits.forEach((family, adder) -> result.put(family, adder.sum()));
+        return result;
+    }
+
+    public Map<String, Long> getMissCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        misses.forEach((family, adder) -> result.put(family, adder.sum()));
+        return result;
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHits.sum();
+    }
+
+    public long getNegativeMissCount() {
+        return negativeMisses.sum();
+    }
+
+    public TimeHistogram getLoadTimes() {
+        return loadTimes;
+    }
+
+    public TimeHistogram getSerializationTimes() {
+        return serializationTimes;
+    }
+
+    public long getMemoryEvictionCount() {
+        return memoryEvictions.sum();
+    }
+
+    public long getStoreEvictionCount() {
+        return storeEvictions.sum();
+    }
+
+    public long getMemoryEntryCount() {
+        return memoryEntryCount.getAsLong();
+    }
+
+    public long getStoreEntryCount() {
+        return storeEntryCount.getAsLong();
+    }
+
+    public long getNegativeEntryCount() {
+        return negativeEntryCount.getAsLong();
+    }
+
+    public long getStoreBytes() {
+        return storeBytes.getAsLong();
+    }
+
+    public static class TimeHistogram {
+
+        public static final long[] BUCKET_BOUNDS_MICROS = new long[] {10, 50, 100, 500, 1000, 5000, 10000, 50000, 100000, Long.MAX_VALUE};
+
+        private final LongAdder[] buckets;
+        private final LongAdder totalNanos;
+
+        private TimeHistogram() {
+            this.buckets = new LongAdder[BUCKET_BOUNDS_MICROS.length];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+            this.totalNanos = new LongAdder();
+        }
+
+        public void record(long nanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+                if (micros <= BUCKET_BOUNDS_MICROS[i]) {
+                    buckets[i].increment();
+                    break;
+                }
+            }
+            totalNanos.add(nanos);
+        }
+
+        public long[] getBucketCounts() {
+            long[] counts = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+            }
+            return counts;
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public double getMeanMillis() {
+            long count = getCount();
+            return count == 0 ? 0 : getTotalNanos() / (double) count / 1000000.0;
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import java.util.Map;
+
+public interface CacheStatsMXBean {
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    Map<String, Long> getHitCounts();
+
+    Map<String, Long> getMissCounts();
+
+    long getNegativeHitCount();
+
+    long getNegativeMissCount();
+
+    long getNegativeEntryCount();
+
+    long getMemoryEvictionCount();
+
+    long getStoreEvictionCount();
+
+    long getMemoryEntryCount();
+
+    long getStoreEntryCount();
+
+    long getStoreBytes();
+
+    long[] getHistogramBucketBoundsMicros();
+
+    long[] getLoadTimeHistogram();
+
+    long[] getSerializationTimeHistogram();
+
+}
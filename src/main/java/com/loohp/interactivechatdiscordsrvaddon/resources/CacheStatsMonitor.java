@@ -0,0 +1,121 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class CacheStatsMonitor implements CacheStatsMXBean {
+
+    public static final String OBJECT_NAME = "com.loohp.interactivechatdiscordsrvaddon:type=CacheStats";
+
+    private final Supplier<CacheStats> statsSupplier;
+
+    public CacheStatsMonitor(Supplier<CacheStats> statsSupplier) {
+        this.statsSupplier = statsSupplier;
+    }
+
+    private CacheStats stats() {
+        CacheStats stats = statsSupplier.get();
+        return stats == null ? CacheStats.EMPTY_INSTANCE : stats;
+    }
+
+    @Override
+    public long getHitCount() {
+        return stats().getHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return stats().getMissCount();
+    }
+
+    @Override
+    public double getHitRate() {
+        return stats().getHitRate();
+    }
+
+    @Override
+    public Map<String, Long> getHitCounts() {
+        return stats().getHitCounts();
+    }
+
+    @Override
+    public Map<String, Long> getMissCounts() {
+        return stats().getMissCounts();
+    }
+
+    @Override
+    public long getNegativeHitCount() {
+        return stats().getNegativeHitCount();
+    }
+
+    @Override
+    public long getNegativeMissCount() {
+        return stats().getNegativeMissCount();
+    }
+
+    @Override
+    public long getNegativeEntryCount() {
+        return stats().getNegativeEntryCount();
+    }
+
+    @Override
+    public long getMemoryEvictionCount() {
+        return stats().getMemoryEvictionCount();
+    }
+
+    @Override
+    public long getStoreEvictionCount() {
+        return stats().getStoreEvictionCount();
+    }
+
+    @Override
+    public long getMemoryEntryCount() {
+        return stats().getMemoryEntryCount();
+    }
+
+    @Override
+    public long getStoreEntryCount() {
+        return stats().getStoreEntryCount();
+    }
+
+    @Override
+    public long getStoreBytes() {
+        return stats().getStoreBytes();
+    }
+
+    @Override
+    public long[] getHistogramBucketBoundsMicros() {
+        return CacheStats.TimeHistogram.BUCKET_BOUNDS_MICROS.clone();
+    }
+
+    @Override
+    public long[] getLoadTimeHistogram() {
+        return stats().getLoadTimes().getBucketCounts();
+    }
+
+    @Override
+    public long[] getSerializationTimeHistogram() {
+        return stats().getSerializationTimes().getBucketCounts();
+    }
+
+}
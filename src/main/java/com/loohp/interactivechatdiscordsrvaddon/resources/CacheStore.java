@@ -0,0 +1,266 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import com.loohp.interactivechatdiscordsrvaddon.utils.FileUtils;
+import org.mapdb.DB;
+import org.mapdb.DBException;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+class CacheStore {
+
+    private static final String STORE_FILE_NAME = "store.dat";
+    private static final String LEGACY_STORE_FILE_NAME = "data.dat";
+
+    private static final Map<File, CacheStore> OPEN_STORES = new HashMap<>();
+
+    static CacheStore acquire(File folder, long timeout, long maxStoreSize, boolean persistent) {
+        File key = folder.getAbsoluteFile();
+        synchronized (OPEN_STORES) {
+            CacheStore store = OPEN_STORES.get(key);
+            if (store == null) {
+                store = new CacheStore(key, timeout, maxStoreSize, persistent);
+                OPEN_STORES.put(key, store);
+            } else if (!store.hasSettings(timeout, maxStoreSize, persistent)) {
+                store.reopen(timeout, maxStoreSize, persistent);
+            }
+            store.references++;
+            return store;
+        }
+    }
+
+    static void release(CacheStore store) {
+        synchronized (OPEN_STORES) {
+            if (--store.references > 0) {
+                return;
+            }
+            OPEN_STORES.remove(store.folder, store);
+        }
+        store.close();
+    }
+
+    private final File folder;
+    private final File storeFile;
+    private final List<CacheStats> listeners;
+    private final ReentrantReadWriteLock lock;
+    private long timeout;
+    private long maxStoreSize;
+    private boolean persistent;
+    private DB db;
+    private ScheduledExecutorService expireService;
+    private HTreeMap<byte[], byte[]> map;
+    private int references;
+
+    private CacheStore(File folder, long timeout, long maxStoreSize, boolean persistent) {
+        this.folder = folder;
+        this.storeFile = new File(folder, STORE_FILE_NAME);
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.references = 0;
+        open(timeout, maxStoreSize, persistent);
+    }
+
+    private boolean hasSettings(long timeout, long maxStoreSize, boolean persistent) {
+        return this.timeout == timeout && this.maxStoreSize == maxStoreSize && this.persistent == persistent;
+    }
+
+    private void reopen(long timeout, long maxStoreSize, boolean persistent) {
+        lock.writeLock().lock();
+        try {
+            close0();
+            open(timeout, maxStoreSize, persistent);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void open(long timeout, long maxStoreSize, boolean persistent) {
+        this.timeout = timeout;
+        this.maxStoreSize = maxStoreSize;
+        this.persistent = persistent;
+        if (!persistent && folder.exists()) {
+            FileUtils.removeFolderRecursively(folder);
+        }
+        folder.mkdirs();
+        this.db = openDatabase();
+        this.expireService = Executors.newSingleThreadScheduledExecutor();
+        this.map = openMap();
+        if (map.getExpireCreateTTL() != timeout) {
+            //the expiry of an existing map is fixed when it is created
+            expireService.shutdown();
+            map.close();
+            db.close();
+            FileUtils.removeFolderRecursively(folder);
+            folder.mkdirs();
+            this.db = openDatabase();
+            this.expireService = Executors.newSingleThreadScheduledExecutor();
+            this.map = openMap();
+        }
+    }
+
+    private HTreeMap<byte[], byte[]> openMap() {
+        return db.hashMap("cache", Serializer.BYTE_ARRAY, Serializer.BYTE_ARRAY)
+                .expireAfterCreate(timeout)
+                .expireStoreSize(maxStoreSize)
+                .expireCompactThreshold(CacheManager.STORE_COMPACT_THRESHOLD)
+                .expireExecutor(expireService)
+                .expireExecutorPeriod(CacheManager.EXPIRE_SWEEP_PERIOD)
+                .counterEnable()
+                .modificationListener(this::onModification)
+                .createOrOpen();
+    }
+
+    private DB openDatabase() {
+        File legacyFile = new File(folder, LEGACY_STORE_FILE_NAME);
+        if (legacyFile.exists()) {
+            legacyFile.delete();
+        }
+        if (!persistent) {
+            return DBMaker.fileDB(storeFile).fileMmapEnableIfSupported().fileDeleteAfterClose().make();
+        }
+        try {
+            return DBMaker.fileDB(storeFile).fileMmapEnableIfSupported().make();
+        } catch (DBException e) {
+            new RuntimeException("Persistent cache at " + storeFile.getAbsolutePath() + " was not closed cleanly or is corrupted, the cache will be reset", e).printStackTrace();
+            FileUtils.removeFolderRecursively(folder);
+            folder.mkdirs();
+            return DBMaker.fileDB(storeFile).fileMmapEnableIfSupported().make();
+        }
+    }
+
+    byte[] get(byte[] key) {
+        lock.readLock().lock();
+        try {
+            return map.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void putAll(Map<byte[], byte[]> entries) {
+        lock.readLock().lock();
+        try {
+            map.putAll(entries);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void remove(byte[] key) {
+        lock.readLock().lock();
+        try {
+            map.remove(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void removeIf(Predicate<byte[]> filter, BooleanSupplier running) {
+        lock.readLock().lock();
+        try {
+            for (byte[] key : map.keySet()) {
+                if (!running.getAsBoolean()) {
+                    return;
+                }
+                if (filter.test(key)) {
+                    map.remove(key);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.readLock().lock();
+        try {
+            map.clear();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long size() {
+        lock.readLock().lock();
+        try {
+            return map.sizeLong();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long getStoreBytes() {
+        return storeFile.length();
+    }
+
+    void addListener(CacheStats stats) {
+        listeners.add(stats);
+    }
+
+    void removeListener(CacheStats stats) {
+        listeners.remove(stats);
+    }
+
+    private void onModification(byte[] key, byte[] oldValue, byte[] newValue, boolean triggered) {
+        if (triggered && newValue == null) {
+            for (CacheStats stats : listeners) {
+                stats.recordStoreEviction();
+            }
+        }
+    }
+
+    private void close() {
+        lock.writeLock().lock();
+        try {
+            close0();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void close0() {
+        expireService.shutdown();
+        try {
+            expireService.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ignore) {
+        }
+        map.close();
+        db.close();
+        if (!persistent && folder.exists()) {
+            FileUtils.removeFolderRecursively(folder);
+        }
+    }
+
+}
@@ -24,13 +24,31 @@ import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceManager.Resour
 
 import java.io.File;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
 
 public interface ICacheManager extends IResourceRegistry {
 
     String IDENTIFIER = "CacheManager";
 
     static ResourceRegistrySupplier<ICacheManager> getDefaultSupplier(File folder) {
-        return manager -> new CacheManager(folder, Duration.ofMinutes(10));
+        return getDefaultSupplier(folder, Duration.ofMinutes(10), CacheManager.DEFAULT_MAX_STORE_SIZE);
+    }
+
+    static ResourceRegistrySupplier<ICacheManager> getDefaultSupplier(File folder, Duration timeout, long maxStoreSize) {
+        return getDefaultSupplier(folder, timeout, maxStoreSize, false);
+    }
+
+    static ResourceRegistrySupplier<ICacheManager> getDefaultSupplier(File folder, Duration timeout, long maxStoreSize, boolean persistent) {
+        return getDefaultSupplier(folder, timeout, CacheManager.DEFAULT_NEGATIVE_CACHE_TIMEOUT, maxStoreSize, persistent);
+    }
+
+    static ResourceRegistrySupplier<ICacheManager> getDefaultSupplier(File folder, Duration timeout, Duration negativeTimeout, long maxStoreSize, boolean persistent) {
+        return getDefaultSupplier(folder, timeout, negativeTimeout, maxStoreSize, persistent, Collections.emptyList());
+    }
+
+    static ResourceRegistrySupplier<ICacheManager> getDefaultSupplier(File folder, Duration timeout, Duration negativeTimeout, long maxStoreSize, boolean persistent, Collection<String> keyFamilies) {
+        return manager -> new CacheManager(folder, timeout, negativeTimeout, maxStoreSize, CacheManager.DEFAULT_MEMORY_CACHE_SIZE, persistent, manager::getResourcePackFingerprint, keyFamilies);
     }
 
     static ResourceRegistrySupplier<ICacheManager> getDummySupplier() {
@@ -70,4 +88,16 @@ public interface ICacheManager extends IResourceRegistry {
 
     void clearAllCache();
 
+    default String getNegativeCache(String key) {
+        return null;
+    }
+
+    default void putNegativeCache(String key, String reason) {
+        //do nothing
+    }
+
+    default CacheStats getStats() {
+        return CacheStats.EMPTY_INSTANCE;
+    }
+
 }
@@ -40,6 +40,7 @@ import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelOverride.M
 import com.loohp.interactivechatdiscordsrvaddon.resources.mods.optifine.cit.EnchantmentProperties.OpenGLBlending;
 import com.loohp.interactivechatdiscordsrvaddon.resources.textures.*;
 import com.loohp.interactivechatdiscordsrvaddon.utils.ModelUtils;
+import com.loohp.interactivechatdiscordsrvaddon.utils.SingleFlight;
 import com.loohp.interactivechatdiscordsrvaddon.utils.TintUtils.TintIndexData;
 import com.loohp.interactivechatdiscordsrvaddon.utils.ValuePairs;
 
@@ -56,7 +57,6 @@ import java.util.function.Function;
 import java.util.function.IntSupplier;
 import java.util.function.LongSupplier;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
 
 public class ModelRenderer implements AutoCloseable {
 
@@ -72,7 +72,10 @@ public class ModelRenderer implements AutoCloseable {
     public static final int TEXTURE_RESOLUTION = 800;
 
     public static final String CACHE_KEY = "ModelRender";
+    public static final String PLAYER_MODEL_CACHE_KEY = "PlayerModel";
     public static final String MODEL_NOT_FOUND = "notfound";
+    public static final String RESOURCE_MANAGER_CLOSED = "closed";
+    public static final String NEGATIVE_CACHE_KEY = "Negative";
 
     private static final BufferedImage[] EMPTY_IMAGE_ARRAY = new BufferedImage[0];
     private static final double[] OVERLAY_ADDITION_FACTORS = new double[6];
@@ -89,6 +92,7 @@ public class ModelRenderer implements AutoCloseable {
     private final IntSupplier renderThreads;
     private final ThreadPoolExecutor renderingService;
     private final ScheduledExecutorService controlService;
+    private final SingleFlight<String, RenderResult> inFlightRenders;
     private final AtomicBoolean isValid;
 
     public ModelRenderer(Function<String, ThreadFactory> threadFactoryBuilder, LongSupplier cacheTimeoutSupplier, IntSupplier renderThreads) {
@@ -96,6 +100,7 @@ public class ModelRenderer implements AutoCloseable {
         this.threadFactoryBuilder = threadFactoryBuilder;
         this.cacheTimeoutSupplier = cacheTimeoutSupplier;
         this.renderThreads = renderThreads;
+        this.inFlightRenders = new SingleFlight<>();
 
         int renderThreadSize = renderThreads.getAsInt();
 
@@ -125,6 +130,17 @@ public class ModelRenderer implements AutoCloseable {
     }
 
     public RenderResult renderPlayer(int width, int height, ResourceManager manager, boolean post1_8, boolean slim, Map<String, TextureResource> providedTextures, TintIndexData tintIndexData, Map<PlayerModelItemPosition, PlayerModelItem> modelItems) {
+        if (!manager.retain()) {
+            return new RenderResult(RESOURCE_MANAGER_CLOSED);
+        }
+        try {
+            return renderPlayer0(width, height, manager, post1_8, slim, providedTextures, tintIndexData, modelItems);
+        } finally {
+            manager.release();
+        }
+    }
+
+    private RenderResult renderPlayer0(int width, int height, ResourceManager manager, boolean post1_8, boolean slim, Map<String, TextureResource> providedTextures, TintIndexData tintIndexData, Map<PlayerModelItemPosition, PlayerModelItem> modelItems) {
         BlockModel playerModel = manager.getModelManager().resolveBlockModel(slim ? PLAYER_MODEL_SLIM_RESOURCELOCATION : PLAYER_MODEL_RESOURCELOCATION, InteractiveChat.version.isOld(), Collections.emptyMap());
         if (playerModel == null) {
             return new RenderResult(MODEL_NOT_FOUND);
@@ -140,7 +156,18 @@ public class ModelRenderer implements AutoCloseable {
             resolvedItems.put(playerModelItem, new ValuePairs<>(itemBlockModel, overrideTextures));
         }
 
-        String cacheKey = cacheKey(width, height, manager.getUuid(), slim, cacheKeyResolvedItems(resolvedItems), cacheKeyProvidedTextures(providedTextures));
+        RenderCacheKey.Builder cacheKeyBuilder = RenderCacheKey.builder(CACHE_KEY).putString(PLAYER_MODEL_CACHE_KEY).putInt(width).putInt(height).putBoolean(slim).putTextures(providedTextures).putTint(tintIndexData);
+        for (PlayerModelItemPosition position : PlayerModelItemPosition.values()) {
+            PlayerModelItem playerModelItem = modelItems.get(position);
+            if (playerModelItem == null) {
+                continue;
+            }
+            ValuePairs<BlockModel, Map<String, TextureResource>> resolvedItem = resolvedItems.get(playerModelItem);
+            BlockModel itemBlockModel = resolvedItem.getFirst();
+            cacheKeyBuilder.putEnum(position).putString(playerModelItem.getModelKey()).putPredicates(playerModelItem.getPredicate()).putBoolean(playerModelItem.isEnchanted()).putTextures(playerModelItem.getProvidedTextures()).putTint(playerModelItem.getTintIndexData())
+                    .putString(itemBlockModel == null ? null : itemBlockModel.getResourceLocation()).putTextures(resolvedItem.getSecond());
+        }
+        String cacheKey = cacheKeyBuilder.build().asCacheKey();
         if (manager.hasResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class)) {
             CacheObject<?> cachedRender = manager.getResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class).getCache(cacheKey);
             if (cachedRender != null) {
@@ -151,6 +178,10 @@ public class ModelRenderer implements AutoCloseable {
             }
         }
 
+        return inFlightRenders.execute(manager.getUuid() + cacheKey, () -> renderResolvedPlayer(width, height, manager, post1_8, playerModel, playerRenderModel, tintIndexData, resolvedItems, providedTextures, cacheKey));
+    }
+
+    private RenderResult renderResolvedPlayer(int width, int height, ResourceManager manager, boolean post1_8, BlockModel playerModel, Model playerRenderModel, TintIndexData tintIndexData, Map<PlayerModelItem, ValuePairs<BlockModel, Map<String, TextureResource>>> resolvedItems, Map<String, TextureResource> providedTextures, String cacheKey) {
         for (Entry<PlayerModelItem, ValuePairs<BlockModel, Map<String, TextureResource>>> entry : resolvedItems.entrySet()) {
             PlayerModelItem playerModelItem = entry.getKey();
             BlockModel itemBlockModel = entry.getValue().getFirst();
@@ -276,21 +307,45 @@ public class ModelRenderer implements AutoCloseable {
     }
 
     public RenderResult render(int width, int height, int internalWidth, int internalHeight, ResourceManager manager, Function<BlockModel, ValuePairs<BlockModel, Map<String, TextureResource>>> postResolveFunction, boolean post1_8, String modelKey, ModelDisplayPosition displayPosition, Map<ModelOverrideType, Float> predicate, Map<String, TextureResource> providedTextures, TintIndexData tintIndexData, boolean enchanted, boolean usePlayerModelPosition, UnaryOperator<BufferedImage> enchantmentGlintProvider, Function<BufferedImage, RawEnchantmentGlintData> rawEnchantmentGlintProvider) {
+        if (!manager.retain()) {
+            return new RenderResult(RESOURCE_MANAGER_CLOSED);
+        }
+        try {
+            return render0(width, height, internalWidth, internalHeight, manager, postResolveFunction, post1_8, modelKey, displayPosition, predicate, providedTextures, tintIndexData, enchanted, usePlayerModelPosition, enchantmentGlintProvider, rawEnchantmentGlintProvider);
+        } finally {
+            manager.release();
+        }
+    }
+
+    private RenderResult render0(int width, int height, int internalWidth, int internalHeight, ResourceManager manager, Function<BlockModel, ValuePairs<BlockModel, Map<String, TextureResource>>> postResolveFunction, boolean post1_8, String modelKey, ModelDisplayPosition displayPosition, Map<ModelOverrideType, Float> predicate, Map<String, TextureResource> providedTextures, TintIndexData tintIndexData, boolean enchanted, boolean usePlayerModelPosition, UnaryOperator<BufferedImage> enchantmentGlintProvider, Function<BufferedImage, RawEnchantmentGlintData> rawEnchantmentGlintProvider) {
         if (postResolveFunction == null) {
             postResolveFunction = DEFAULT_POST_RESOLVE_FUNCTION;
         }
 
-        String rejectedReason = null;
-        BlockModel blockModel = manager.getModelManager().resolveBlockModel(modelKey, post1_8, predicate);
-        ValuePairs<BlockModel, Map<String, TextureResource>> resolveFunctionResult = postResolveFunction.apply(blockModel);
-        blockModel = resolveFunctionResult.getFirst();
+        ICacheManager cacheManager = manager.getResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class);
+        boolean defaultPostResolve = postResolveFunction == DEFAULT_POST_RESOLVE_FUNCTION;
+        String negativeCacheKey = RenderCacheKey.builder(CACHE_KEY).putString(NEGATIVE_CACHE_KEY).putString(modelKey).putBoolean(post1_8).putPredicates(predicate).build().asCacheKey();
+        String negativeResult = cacheManager.getNegativeCache(negativeCacheKey);
+        if (negativeResult != null && defaultPostResolve) {
+            return new RenderResult(negativeResult);
+        }
+
+        BlockModel rawBlockModel = MODEL_NOT_FOUND.equals(negativeResult) ? null : manager.getModelManager().resolveBlockModel(modelKey, post1_8, predicate);
+        if (rawBlockModel == null && negativeResult == null) {
+            cacheManager.putNegativeCache(negativeCacheKey, MODEL_NOT_FOUND);
+        }
+        ValuePairs<BlockModel, Map<String, TextureResource>> resolveFunctionResult = postResolveFunction.apply(rawBlockModel);
+        BlockModel blockModel = resolveFunctionResult.getFirst();
         Map<String, TextureResource> overrideTextures = resolveFunctionResult.getSecond();
         if (blockModel == null) {
             return new RenderResult(MODEL_NOT_FOUND);
         }
 
-        String cacheKey = cacheKey(width, height, manager.getUuid(), postResolveFunction.hashCode(), modelKey, displayPosition, predicate, cacheKeyProvidedTextures(providedTextures), cacheKeyProvidedTextures(overrideTextures), enchanted);
-        CacheObject<?> cachedRender = manager.getResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class).getCache(cacheKey);
+        String cacheKey = RenderCacheKey.forModelRender(width, height, internalWidth, internalHeight, usePlayerModelPosition, modelKey, blockModel.getResourceLocation(), displayPosition, predicate, providedTextures, overrideTextures, tintIndexData, enchanted).asCacheKey();
+        if (!defaultPostResolve && (negativeResult = cacheManager.getNegativeCache(cacheKey)) != null) {
+            return new RenderResult(negativeResult);
+        }
+        CacheObject<?> cachedRender = cacheManager.getCache(cacheKey);
         if (cachedRender != null) {
             RenderResult cachedResult = (RenderResult) cachedRender.getObject();
             if (cachedResult.isSuccessful()) {
@@ -298,6 +353,15 @@ public class ModelRenderer implements AutoCloseable {
             }
         }
 
+        RenderResult result = inFlightRenders.execute(manager.getUuid() + cacheKey, () -> renderResolvedModel(width, height, internalWidth, internalHeight, manager, blockModel, displayPosition, providedTextures, overrideTextures, tintIndexData, enchanted, usePlayerModelPosition, enchantmentGlintProvider, rawEnchantmentGlintProvider, cacheKey));
+        if (!result.isSuccessful()) {
+            cacheManager.putNegativeCache(defaultPostResolve ? negativeCacheKey : cacheKey, result.getRejectedReason());
+        }
+        return result;
+    }
+
+    private RenderResult renderResolvedModel(int width, int height, int internalWidth, int internalHeight, ResourceManager manager, BlockModel blockModel, ModelDisplayPosition displayPosition, Map<String, TextureResource> providedTextures, Map<String, TextureResource> overrideTextures, TintIndexData tintIndexData, boolean enchanted, boolean usePlayerModelPosition, UnaryOperator<BufferedImage> enchantmentGlintProvider, Function<BufferedImage, RawEnchantmentGlintData> rawEnchantmentGlintProvider, String cacheKey) {
+        String rejectedReason = null;
         BufferedImage image = new BufferedImage(internalWidth, internalHeight, BufferedImage.TYPE_INT_ARGB);
         if (blockModel.getRawParent() == null || !blockModel.getRawParent().contains("/")) {
             renderBlockModel(generateStandardRenderModel(blockModel, manager, providedTextures, overrideTextures, tintIndexData, enchanted, false, rawEnchantmentGlintProvider), image, blockModel.getDisplay(displayPosition), blockModel.getGUILight(), usePlayerModelPosition);
@@ -344,12 +408,10 @@ public class ModelRenderer implements AutoCloseable {
         } else {
             rejectedReason = blockModel.getRawParent();
         }
-        RenderResult result;
-        if (rejectedReason == null) {
-            result = new RenderResult(ImageUtils.resizeImageQuality(image, width, height));
-        } else {
-            result = new RenderResult(rejectedReason);
+        if (rejectedReason != null) {
+            return new RenderResult(rejectedReason);
         }
+        RenderResult result = new RenderResult(ImageUtils.resizeImageQuality(image, width, height));
         manager.getResourceRegistry(ICacheManager.IDENTIFIER, ICacheManager.class).putCache(cacheKey, result);
         return result;
     }
@@ -439,7 +501,7 @@ public class ModelRenderer implements AutoCloseable {
                         } else {
                             BufferedImage cached = cachedResize.get(texture);
                             if (cached == null) {
-                                cached = resource.getTexture();
+                                cached = resource.getReadOnlyTexture();
                                 if (resource.hasTextureMeta()) {
                                     TextureMeta meta = resource.getTextureMeta();
                                     if (meta.hasProperties()) {
@@ -652,42 +714,6 @@ public class ModelRenderer implements AutoCloseable {
         renderModel.render(image, true, baseTransform, BlendingModes.NORMAL, renderingService).join();
     }
 
-    private String cacheKey(Object... obj) {
-        return Arrays.stream(obj).map(each -> {
-            if (each == null) {
-                return "null";
-            } else if (each instanceof Map) {
-                return cacheKeyMap((Map<?, ?>) each);
-            }
-            return each.toString();
-        }).collect(Collectors.joining("/", CACHE_KEY + "/", ""));
-    }
-
-    private String cacheKeyMap(Map<?, ?> map) {
-        Comparator<Entry<?, ?>> c = Comparator.comparing(entry -> entry.getKey() == null ? "null" : entry.getKey().toString());
-        c = c.thenComparing(entry -> entry.getValue() == null ? "null" : entry.getValue().toString());
-        return map.entrySet().stream().sorted(c).map(entry -> (entry.getKey() == null ? "null" : entry.getKey().toString()) + ":" + (entry.getValue() == null ? "null" : entry.getValue().toString())).collect(Collectors.joining(", ", "{", "}"));
-    }
-
-    private String cacheKeyProvidedTextures(Map<String, TextureResource> providedTextures) {
-        return providedTextures.entrySet().stream().map(entry -> {
-            TextureResource resource = entry.getValue();
-            if (resource.isTexture()) {
-                return entry.getKey() + ":" + ImageUtils.hash(resource.getTexture());
-            } else if (resource.hasFile()) {
-                return entry.getKey() + ":" + resource.getFile().getAbsolutePath();
-            }
-            return entry.getKey() + ":" + resource;
-        }).collect(Collectors.joining(", ", "{", "}"));
-    }
-
-    private String cacheKeyResolvedItems(Map<PlayerModelItem, ValuePairs<BlockModel, Map<String, TextureResource>>> modelItems) {
-        return modelItems.entrySet().stream().map(entry -> {
-            PlayerModelItem resource = entry.getKey();
-            return entry.getKey() + ":[" + resource.getPosition() + ", " + resource.getModelKey() + ", " + cacheKeyMap(resource.getPredicate()) + ", " + resource.isEnchanted() + ", " + cacheKeyProvidedTextures(resource.getProvidedTextures()) + ", " + resource.getPostResolveFunction().hashCode() + ", " + cacheKeyProvidedTextures(entry.getValue().getSecond()) + "]";
-        }).collect(Collectors.joining(", ", "{", "}"));
-    }
-
     private <K, V> Set<K> findKey(Map<K, V> map, V value) {
         Set<K> result = new HashSet<>();
         for (Entry<K, V> entry : map.entrySet()) {
@@ -849,6 +875,10 @@ public class ModelRenderer implements AutoCloseable {
             return ImageUtils.copyImage(image);
         }
 
+        BufferedImage getRawImage() {
+            return image;
+        }
+
         public String getRejectedReason() {
             return rejectedReason;
         }
@@ -0,0 +1,203 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelDisplay.ModelDisplayPosition;
+import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelOverride.ModelOverrideType;
+import com.loohp.interactivechatdiscordsrvaddon.resources.textures.TextureResource;
+import com.loohp.interactivechatdiscordsrvaddon.utils.TintUtils.TintIndexData;
+
+import java.awt.image.BufferedImage;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+public class RenderCacheKey {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    public static Builder builder(String type) {
+        return new Builder(type);
+    }
+
+    public static RenderCacheKey forModelRender(int width, int height, int internalWidth, int internalHeight, boolean usePlayerModelPosition, String modelKey, String resourceLocation, ModelDisplayPosition displayPosition, Map<ModelOverrideType, Float> predicates, Map<String, TextureResource> providedTextures, Map<String, TextureResource> overrideTextures, TintIndexData tintIndexData, boolean enchanted) {
+        return builder(ModelRenderer.CACHE_KEY).putInt(width).putInt(height).putInt(internalWidth).putInt(internalHeight).putBoolean(usePlayerModelPosition).putString(modelKey).putString(resourceLocation)
+                .putEnum(displayPosition).putPredicates(predicates).putTextures(providedTextures).putTextures(overrideTextures).putTint(tintIndexData).putBoolean(enchanted).build();
+    }
+
+    private final String type;
+    private final HashCode hash;
+
+    private RenderCacheKey(String type, HashCode hash) {
+        this.type = type;
+        this.hash = hash;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public HashCode getHash() {
+        return hash;
+    }
+
+    public String asCacheKey() {
+        return type + "/" + hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RenderCacheKey that = (RenderCacheKey) o;
+        return type.equals(that.type) && hash.equals(that.hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, hash);
+    }
+
+    @Override
+    public String toString() {
+        return asCacheKey();
+    }
+
+    public static class Builder {
+
+        private static final byte NULL_VALUE = 0;
+        private static final byte FILE_TEXTURE = 1;
+        private static final byte IMAGE_TEXTURE = 2;
+        private static final byte KEYED_TEXTURE = 3;
+
+        private final String type;
+        private final Hasher hasher;
+
+        private Builder(String type) {
+            this.type = type;
+            this.hasher = HASH_FUNCTION.newHasher();
+        }
+
+        public Builder putInt(int value) {
+            hasher.putInt(value);
+            return this;
+        }
+
+        public Builder putBoolean(boolean value) {
+            hasher.putBoolean(value);
+            return this;
+        }
+
+        public Builder putString(String value) {
+            if (value == null) {
+                hasher.putInt(-1);
+            } else {
+                hasher.putInt(value.length());
+                hasher.putString(value, StandardCharsets.UTF_8);
+            }
+            return this;
+        }
+
+        public Builder putEnum(Enum<?> value) {
+            hasher.putInt(value == null ? -1 : value.ordinal());
+            return this;
+        }
+
+        public Builder putPredicates(Map<ModelOverrideType, Float> predicates) {
+            if (predicates == null) {
+                hasher.putInt(-1);
+                return this;
+            }
+            hasher.putInt(predicates.size());
+            for (ModelOverrideType type : ModelOverrideType.values()) {
+                Float value = predicates.get(type);
+                if (value != null) {
+                    hasher.putInt(type.ordinal());
+                    hasher.putFloat(value);
+                }
+            }
+            return this;
+        }
+
+        public Builder putTextures(Map<String, TextureResource> textures) {
+            if (textures == null) {
+                hasher.putInt(-1);
+                return this;
+            }
+            hasher.putInt(textures.size());
+            Map<String, TextureResource> sorted = textures.size() > 1 ? new TreeMap<>(textures) : textures;
+            for (Map.Entry<String, TextureResource> entry : sorted.entrySet()) {
+                putString(entry.getKey());
+                putTexture(entry.getValue());
+            }
+            return this;
+        }
+
+        public Builder putTexture(TextureResource resource) {
+            if (resource == null) {
+                hasher.putByte(NULL_VALUE);
+            } else if (resource.hasFile() && !resource.hasImageTransformFunction()) {
+                hasher.putByte(FILE_TEXTURE);
+                putString(resource.getFile().getAbsolutePath());
+            } else if (resource.isTexture()) {
+                hasher.putByte(IMAGE_TEXTURE);
+                BufferedImage image = resource.getReadOnlyTexture();
+                int width = image.getWidth();
+                int height = image.getHeight();
+                hasher.putInt(width).putInt(height);
+                for (int color : image.getRGB(0, 0, width, height, null, 0, width)) {
+                    hasher.putInt(color);
+                }
+            } else {
+                hasher.putByte(KEYED_TEXTURE);
+                putString(resource.getResourceKey());
+            }
+            return this;
+        }
+
+        public Builder putTint(TintIndexData tintIndexData) {
+            if (tintIndexData == null) {
+                hasher.putInt(-1);
+                return this;
+            }
+            hasher.putInt(tintIndexData.getAvailableTintIndexes().size());
+            for (int tintIndex : tintIndexData.getAvailableTintIndexes()) {
+                hasher.putInt(tintIndex).putInt(tintIndexData.getTintColor(tintIndex));
+            }
+            return this;
+        }
+
+        public RenderCacheKey build() {
+            return new RenderCacheKey(type, hasher.hash());
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
+import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelDisplay.ModelDisplayPosition;
+import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelOverride.ModelOverrideType;
+import com.loohp.interactivechatdiscordsrvaddon.utils.ItemRenderUtils;
+import com.loohp.interactivechatdiscordsrvaddon.utils.TintUtils;
+import org.bukkit.Material;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+public class RenderCacheWarmer {
+
+    public static final int PROGRESS_REPORT_STEPS = 10;
+
+    private final ResourceManager manager;
+    private final ModelRenderer modelRenderer;
+    private final int renderSize;
+    private final boolean post1_8;
+    private final double cpuBudget;
+    private final LongSupplier activityCounter;
+    private final Consumer<String> progressListener;
+    private final ThreadFactory threadFactory;
+    private final AtomicBoolean cancelled;
+    private final AtomicInteger completed;
+    private volatile int total;
+    private volatile Thread thread;
+
+    public RenderCacheWarmer(ResourceManager manager, ModelRenderer modelRenderer, int renderSize, boolean post1_8, double cpuBudget, LongSupplier activityCounter, Consumer<String> progressListener, ThreadFactory threadFactory) {
+        this.manager = manager;
+        this.modelRenderer = modelRenderer;
+        this.renderSize = renderSize;
+        this.post1_8 = post1_8;
+        this.cpuBudget = Math.max(0.01, Math.min(1.0, cpuBudget));
+        this.activityCounter = activityCounter;
+        this.progressListener = progressListener;
+        this.threadFactory = threadFactory;
+        this.cancelled = new AtomicBoolean(false);
+        this.completed = new AtomicInteger(0);
+        this.total = 0;
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException("Render cache warm-up has already been started");
+        }
+        thread = threadFactory.newThread(this::run);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isRunning() {
+        Thread thread = this.thread;
+        return thread != null && thread.isAlive();
+    }
+
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public static Material getMaterial(String modelKey) {
+        if (!modelKey.startsWith(ResourceRegistry.ITEM_MODEL_LOCATION)) {
+            return null;
+        }
+        Material material = Material.getMaterial(modelKey.substring(ResourceRegistry.ITEM_MODEL_LOCATION.length()).toUpperCase());
+        if (material == null || !material.isItem() || ItemRenderUtils.requiresEnchantmentGlint(material)) {
+            return null;
+        }
+        return material;
+    }
+
+    public static Map<ModelOverrideType, Float> getPredicates(Material material) {
+        return ItemRenderUtils.createPredicates(material, true, 0, false);
+    }
+
+    private void run() {
+        List<String> modelKeys = manager.getModelManager().getModelKeys().stream().filter(each -> getMaterial(each) != null).sorted().collect(Collectors.toList());
+        total = modelKeys.size();
+        progressListener.accept("Warming up render cache for " + total + " item models...");
+        long activity = activityCounter.getAsLong();
+        int reportInterval = Math.max(1, total / PROGRESS_REPORT_STEPS);
+        for (String modelKey : modelKeys) {
+            if (cancelled.get() || manager.isRetired() || !manager.isValid()) {
+                progressListener.accept("Render cache warm-up cancelled after " + completed.get() + "/" + total + " item models");
+                return;
+            }
+            if (activityCounter.getAsLong() != activity) {
+                progressListener.accept("Render cache warm-up stopped after " + completed.get() + "/" + total + " item models as images are being requested");
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                Material material = getMaterial(modelKey);
+                if (material != null) {
+                    modelRenderer.render(renderSize, renderSize, manager, null, post1_8, modelKey, ModelDisplayPosition.GUI, getPredicates(material), Collections.emptyMap(), TintUtils.getTintData(material), false, null, null);
+                }
+            } catch (Throwable ignore) {
+            }
+            int done = completed.incrementAndGet();
+            if (done % reportInterval == 0 && done < total) {
+                progressListener.accept("Render cache warm-up " + (done * 100 / total) + "% (" + done + "/" + total + ")");
+            }
+            long pause = (long) ((System.nanoTime() - start) * (1.0 - cpuBudget) / cpuBudget);
+            if (pause > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(pause);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+        progressListener.accept("Render cache warm-up completed for " + total + " item models");
+    }
+
+}
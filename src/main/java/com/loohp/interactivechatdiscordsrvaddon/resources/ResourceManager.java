@@ -21,6 +21,7 @@
 package com.loohp.interactivechatdiscordsrvaddon.resources;
 
 import com.google.gson.GsonBuilder;
+import com.loohp.interactivechatdiscordsrvaddon.graphics.PngReader;
 import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
 import com.loohp.interactivechatdiscordsrvaddon.resources.fonts.FontManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.languages.LanguageManager;
@@ -28,6 +29,7 @@ import com.loohp.interactivechatdiscordsrvaddon.resources.languages.LanguageMeta
 import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.mods.ModManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.textures.TextureManager;
+import com.loohp.interactivechatdiscordsrvaddon.utils.HashUtils;
 import me.clip.placeholderapi.libs.kyori.adventure.text.format.NamedTextColor;
 import me.clip.placeholderapi.libs.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.text.Component;
@@ -36,22 +38,32 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.ZipException;
 
 public class ResourceManager implements AutoCloseable {
 
+    public static final int LOADER_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
     private final List<ResourcePackInfo> resourcePackInfo;
+    private final List<String> resourcePackFingerprints;
+    private volatile String resourcePackFingerprint;
 
     private final Map<String, IResourceRegistry> resourceRegistries;
 
@@ -66,17 +78,28 @@ public class ResourceManager implements AutoCloseable {
     private final boolean fontLegacy;
 
     private final BiFunction<File, ResourcePackType, DefaultResourcePackInfo> defaultResourcePackInfoFunction;
+    private final ForkJoinPool loaderPool;
+    private volatile ResourcePackLayerCache layerCache;
+    private final Map<ResourcePackFile, Map<String, Object>> packLayers;
     private final AtomicBoolean isValid;
+    private final AtomicInteger references;
+    private final AtomicBoolean isRetired;
     private final UUID uuid;
 
     public ResourceManager(boolean flattenLegacy, boolean fontLegacy, Collection<ModManagerSupplier<?>> modManagerProviders, Collection<ResourceRegistrySupplier<?>> resourceManagerUtilsProviders, BiFunction<File, ResourcePackType, DefaultResourcePackInfo> defaultResourcePackInfoFunction) {
         this.resourcePackInfo = new ArrayList<>();
+        this.resourcePackFingerprints = new ArrayList<>();
+        this.resourcePackFingerprint = null;
         this.defaultResourcePackInfoFunction = defaultResourcePackInfoFunction;
 
         this.flattenLegacy = flattenLegacy;
         this.fontLegacy = fontLegacy;
 
+        this.loaderPool = new ForkJoinPool(LOADER_PARALLELISM);
+        this.packLayers = new ConcurrentHashMap<>();
         this.isValid = new AtomicBoolean(true);
+        this.references = new AtomicInteger(0);
+        this.isRetired = new AtomicBoolean(false);
         this.uuid = UUID.randomUUID();
 
         this.resourceRegistries = new HashMap<>();
@@ -105,10 +128,34 @@ public class ResourceManager implements AutoCloseable {
         return loadResources(resourcePackFile, type, false);
     }
 
-    public synchronized ResourcePackInfo loadResources(File resourcePackFile, ResourcePackType type, boolean defaultResource) {
+    public ResourcePackInfo loadResources(File resourcePackFile, ResourcePackType type, boolean defaultResource) {
+        return loadResources(resourcePackFile, type, defaultResource, false);
+    }
+
+    public synchronized ResourcePackInfo loadResources(File resourcePackFile, ResourcePackType type, boolean defaultResource, boolean memoryMapped) {
         if (!isValid()) {
             throw new IllegalStateException("ResourceManager already closed!");
         }
+        String fileFingerprint;
+        try {
+            fileFingerprint = resourcePackFile.exists() ? HashUtils.createFileTreeFingerprint(resourcePackFile) : "missing";
+        } catch (Exception e) {
+            fileFingerprint = "unknown";
+        }
+        ResourcePackLayerCache layerCache = this.layerCache;
+        Map<String, Object> layer = null;
+        if (layerCache != null && resourcePackFile.exists() && !fileFingerprint.equals("unknown")) {
+            layer = layerCache.getLayer(resourcePackFile.getName() + ":" + fileFingerprint);
+        }
+        ResourcePackInfo info = loadResources0(resourcePackFile, type, defaultResource, memoryMapped, layer);
+        synchronized (resourcePackFingerprints) {
+            resourcePackFingerprints.add(0, type + ":" + info.getStatus() + ":" + info.getPackFormat() + ":" + resourcePackFile.getName() + ":" + fileFingerprint);
+            resourcePackFingerprint = null;
+        }
+        return info;
+    }
+
+    private ResourcePackInfo loadResources0(File resourcePackFile, ResourcePackType type, boolean defaultResource, boolean memoryMapped, Map<String, Object> layer) {
         DefaultResourcePackInfo defaultResourcePackInfo = defaultResource ? defaultResourcePackInfoFunction.apply(resourcePackFile, type) : null;
 
         String resourcePackNameStr = resourcePackFile.getName();
@@ -124,7 +171,7 @@ public class ResourceManager implements AutoCloseable {
             resourcePack = new ResourcePackSystemFile(resourcePackFile);
         } else {
             try {
-                resourcePack = new ResourcePackZipEntryFile(resourcePackFile);
+                resourcePack = memoryMapped ? openMemoryMappedZip(resourcePackFile) : new ResourcePackZipEntryFile(resourcePackFile);
             } catch (IOException e) {
                 new IllegalArgumentException(resourcePackFile.getAbsolutePath() + " is an invalid zip file.", e).printStackTrace();
                 ResourcePackInfo info = new ResourcePackInfo(this, null, type, resourcePackName, "Resource Pack is an invalid zip file.");
@@ -132,6 +179,9 @@ public class ResourceManager implements AutoCloseable {
                 return info;
             }
         }
+        if (layer != null) {
+            packLayers.put(resourcePack.getPackRootFile(), layer);
+        }
         ResourcePackFile packMcmeta = resourcePack.getChild("pack.mcmeta");
         if (!packMcmeta.exists()) {
             new ResourceLoadingException(resourcePackNameStr + " does not have a pack.mcmeta").printStackTrace();
@@ -215,7 +265,7 @@ public class ResourceManager implements AutoCloseable {
         ResourcePackFile packIcon = resourcePack.getChild("pack.png");
         if (packIcon.exists()) {
             try (InputStream inputStream = packIcon.getInputStream()) {
-                icon = ImageIO.read(inputStream);
+                icon = PngReader.read(inputStream);
             } catch (Exception ignore) {
             }
         }
@@ -237,6 +287,47 @@ public class ResourceManager implements AutoCloseable {
         return info;
     }
 
+    public ResourcePackLayerCache getLayerCache() {
+        return layerCache;
+    }
+
+    public void setLayerCache(ResourcePackLayerCache layerCache) {
+        this.layerCache = layerCache;
+    }
+
+    public boolean hasParsedResourceLayer(ResourcePackFile file) {
+        return packLayers.containsKey(file.getPackRootFile());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T readParsedResource(ResourcePackFile file, String kind, ResourcePackLayerCache.ResourceParser<T> parser) throws Exception {
+        Map<String, Object> layer = packLayers.get(file.getPackRootFile());
+        if (layer == null) {
+            return parser.parse(file);
+        }
+        String key = kind + ":" + file.getPath();
+        Object value = layer.get(key);
+        if (value == null) {
+            value = parser.parse(file);
+            if (value != null) {
+                layer.put(key, value);
+                ResourcePackLayerCache layerCache = this.layerCache;
+                if (layerCache != null) {
+                    layerCache.markModified();
+                }
+            }
+        }
+        return (T) value;
+    }
+
+    private ResourcePackFile openMemoryMappedZip(File resourcePackFile) throws IOException {
+        try {
+            return new ResourcePackMappedZipFile(resourcePackFile);
+        } catch (ZipException e) {
+            return new ResourcePackZipEntryFile(resourcePackFile);
+        }
+    }
+
     private void filterResources(List<ResourceFilterBlock> resourceFilterBlocks) {
         for (ResourceFilterBlock resourceFilterBlock : resourceFilterBlocks) {
             Pattern namespace = resourceFilterBlock.getNamespace();
@@ -282,74 +373,112 @@ public class ResourceManager implements AutoCloseable {
         if (!assetsFolder.exists() || !assetsFolder.isDirectory()) {
             throw new IllegalArgumentException(assetsFolder.getAbsolutePath() + " is not a directory.");
         }
-        Collection<ResourcePackFile> folders = assetsFolder.listFilesAndFolders();
-        for (ResourcePackFile folder : folders) {
-            if (folder.isDirectory()) {
-                String namespace = folder.getName();
-                ResourcePackFile models = folder.getChild("models");
-                if (models.exists() && models.isDirectory()) {
-                    ((AbstractManager) modelManager).loadDirectory(namespace, models);
-                }
+        List<ResourcePackFile> folders = assetsFolder.listFilesAndFolders().stream().filter(ResourcePackFile::isDirectory).collect(Collectors.toList());
+
+        List<Runnable> baseTasks = new ArrayList<>();
+        baseTasks.add(directoryLoader((AbstractManager) modelManager, folders, Collections.singletonList("models"), namespace -> new Object[0]));
+        baseTasks.add(directoryLoader((AbstractManager) textureManager, folders, Collections.singletonList("textures"), namespace -> {
+            if (ResourceRegistry.RESOURCE_PACK_VERSION <= 9) {
+                return new Object[0];
             }
+            return new Object[] {textureAtlases.getOrDefault(namespace, TextureAtlases.EMPTY_ATLAS)};
+        }));
+        baseTasks.add(directoryLoader((AbstractManager) languageManager, folders, Collections.singletonList("lang"), namespace -> new Object[] {languageMeta}));
+        runLoaderTasks(baseTasks);
+
+        List<Runnable> dependentTasks = new ArrayList<>();
+        dependentTasks.add(directoryLoader((AbstractManager) fontManager, folders, Collections.singletonList("font"), namespace -> new Object[0]));
+        for (ModManager modManager : modManagers.values()) {
+            dependentTasks.add(directoryLoader(modManager, folders, modManager.getModAssetsFolderNames(), namespace -> new Object[0]));
         }
-        for (ResourcePackFile folder : folders) {
-            if (folder.isDirectory()) {
-                String namespace = folder.getName();
-                ResourcePackFile textures = folder.getChild("textures");
-                if (textures.exists() && textures.isDirectory()) {
-                    if (ResourceRegistry.RESOURCE_PACK_VERSION <= 9) {
-                        ((AbstractManager) textureManager).loadDirectory(namespace, textures);
-                    } else {
-                        ((AbstractManager) textureManager).loadDirectory(namespace, textures, textureAtlases.getOrDefault(namespace, TextureAtlases.EMPTY_ATLAS));
+        runLoaderTasks(dependentTasks);
+
+        ((AbstractManager) modelManager).reload();
+        ((AbstractManager) textureManager).reload();
+        ((AbstractManager) fontManager).reload();
+        ((AbstractManager) languageManager).reload();
+        for (ModManager modManager : modManagers.values()) {
+            modManager.reload();
+        }
+    }
+
+    private Runnable directoryLoader(AbstractManager manager, List<ResourcePackFile> folders, Collection<String> directoryNames, Function<String, Object[]> meta) {
+        return () -> {
+            List<ForkJoinTask<Runnable>> prepared = new ArrayList<>();
+            for (String directoryName : directoryNames) {
+                for (ResourcePackFile folder : folders) {
+                    ResourcePackFile directory = folder.getChild(directoryName);
+                    if (directory.exists() && directory.isDirectory()) {
+                        String namespace = folder.getName();
+                        prepared.add(loaderPool.submit(() -> manager.prepareDirectory(namespace, directory, meta.apply(namespace))));
                     }
                 }
             }
-        }
-        for (ResourcePackFile folder : folders) {
-            if (folder.isDirectory()) {
-                String namespace = folder.getName();
-                ResourcePackFile font = folder.getChild("font");
-                if (font.exists() && font.isDirectory()) {
-                    ((AbstractManager) fontManager).loadDirectory(namespace, font);
-                }
+            for (ForkJoinTask<Runnable> task : prepared) {
+                task.join().run();
             }
+        };
+    }
+
+    private void runLoaderTasks(List<Runnable> tasks) {
+        List<ForkJoinTask<?>> futures = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            futures.add(loaderPool.submit(task));
         }
-        for (ResourcePackFile folder : folders) {
-            if (folder.isDirectory()) {
-                String namespace = folder.getName();
-                ResourcePackFile lang = folder.getChild("lang");
-                if (lang.exists() && lang.isDirectory()) {
-                    ((AbstractManager) languageManager).loadDirectory(namespace, lang, languageMeta);
+        RuntimeException exception = null;
+        for (ForkJoinTask<?> future : futures) {
+            try {
+                future.join();
+            } catch (RuntimeException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
                 }
             }
         }
-        for (ModManager modManager : modManagers.values()) {
-            for (String folderName : modManager.getModAssetsFolderNames()) {
-                for (ResourcePackFile folder : folders) {
-                    if (folder.isDirectory()) {
-                        String namespace = folder.getName();
-                        ResourcePackFile modFolder = folder.getChild(folderName);
-                        if (modFolder.exists() && modFolder.isDirectory()) {
-                            modManager.loadDirectory(namespace, modFolder);
-                        }
-                    }
-                }
-            }
+        if (exception != null) {
+            throw exception;
         }
+    }
 
-        ((AbstractManager) modelManager).reload();
-        ((AbstractManager) textureManager).reload();
-        ((AbstractManager) fontManager).reload();
-        ((AbstractManager) languageManager).reload();
-        for (ModManager modManager : modManagers.values()) {
-            modManager.reload();
-        }
+    public ForkJoinPool getLoaderPool() {
+        return loaderPool;
     }
 
     public List<ResourcePackInfo> getResourcePackInfo() {
         return Collections.unmodifiableList(resourcePackInfo);
     }
 
+    public String getResourcePackFingerprint() {
+        String fingerprint = resourcePackFingerprint;
+        if (fingerprint != null) {
+            return fingerprint;
+        }
+        synchronized (resourcePackFingerprints) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-1");
+                digest.update((byte) (flattenLegacy ? 1 : 0));
+                digest.update((byte) (fontLegacy ? 1 : 0));
+                for (String modName : new TreeSet<>(modManagers.keySet())) {
+                    digest.update(modName.getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                }
+                for (String packFingerprint : resourcePackFingerprints) {
+                    digest.update(packFingerprint.getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                }
+                StringBuilder sb = new StringBuilder();
+                for (byte b : digest.digest()) {
+                    sb.append(Integer.toString((b & 0xff) + 0x100, 16).substring(1));
+                }
+                return resourcePackFingerprint = sb.toString();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
     public ModelManager getModelManager() {
         return modelManager;
     }
@@ -422,9 +551,44 @@ public class ResourceManager implements AutoCloseable {
         return uuid;
     }
 
+    public boolean retain() {
+        int count;
+        do {
+            count = references.get();
+            if (count < 0 || !isValid()) {
+                return false;
+            }
+        } while (!references.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    public void release() {
+        if (references.decrementAndGet() == 0 && isRetired.get()) {
+            closeIfReleased();
+        }
+    }
+
+    public boolean isRetired() {
+        return isRetired.get();
+    }
+
+    public void closeWhenReleased() {
+        if (!isRetired.getAndSet(true)) {
+            closeIfReleased();
+        }
+    }
+
+    private void closeIfReleased() {
+        if (references.compareAndSet(0, -1)) {
+            close();
+        }
+    }
+
     @Override
     public synchronized void close() {
         if (isValid.getAndSet(false)) {
+            loaderPool.shutdown();
+            packLayers.clear();
             for (ResourcePackInfo info : resourcePackInfo) {
                 if (info.getResourcePackFile() != null) {
                     info.getResourcePackFile().close();
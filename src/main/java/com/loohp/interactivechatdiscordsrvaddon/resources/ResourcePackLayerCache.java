@@ -0,0 +1,104 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ResourcePackLayerCache {
+
+    private final Map<String, Map<String, Object>> layers;
+    private final Set<String> usedLayers;
+    private final AtomicLong modifications;
+    private volatile long savedModifications;
+
+    public ResourcePackLayerCache() {
+        this.layers = new ConcurrentHashMap<>();
+        this.usedLayers = ConcurrentHashMap.newKeySet();
+        this.modifications = new AtomicLong(0);
+        this.savedModifications = 0;
+    }
+
+    Map<String, Object> getLayer(String layerKey) {
+        usedLayers.add(layerKey);
+        return layers.computeIfAbsent(layerKey, k -> new ConcurrentHashMap<>());
+    }
+
+    Map<String, Map<String, Object>> getLayers() {
+        return Collections.unmodifiableMap(layers);
+    }
+
+    void restoreLayer(String layerKey, Map<String, Object> layer) {
+        layers.put(layerKey, new ConcurrentHashMap<>(layer));
+    }
+
+    void markModified() {
+        modifications.incrementAndGet();
+    }
+
+    public boolean isModified() {
+        return modifications.get() != savedModifications;
+    }
+
+    public long getModificationCount() {
+        return modifications.get();
+    }
+
+    public void markSaved(long modificationCount) {
+        savedModifications = modificationCount;
+    }
+
+    public void clearModified() {
+        markSaved(modifications.get());
+    }
+
+    public boolean hasLayer(String layerKey) {
+        return layers.containsKey(layerKey);
+    }
+
+    public int getLayerCount() {
+        return layers.size();
+    }
+
+    public synchronized void evictUnused() {
+        if (layers.keySet().retainAll(usedLayers)) {
+            markModified();
+        }
+        usedLayers.clear();
+    }
+
+    public synchronized void clear() {
+        layers.clear();
+        usedLayers.clear();
+        markModified();
+    }
+
+    @FunctionalInterface
+    public interface ResourceParser<T> {
+
+        T parse(ResourcePackFile file) throws Exception;
+
+    }
+
+}
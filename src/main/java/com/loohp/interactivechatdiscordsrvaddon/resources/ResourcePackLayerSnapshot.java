@@ -0,0 +1,296 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ResourcePackLayerSnapshot {
+
+    public static final int MAGIC = 0x49434C53;
+    public static final int VERSION = 1;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_OBJECT = 1;
+    private static final int TAG_ARRAY = 2;
+    private static final int TAG_STRING = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_DOUBLE = 5;
+    private static final int TAG_TRUE = 6;
+    private static final int TAG_FALSE = 7;
+    private static final int TAG_STRING_TABLE = 8;
+
+    public static void write(ResourcePackLayerCache cache, String context, File file) throws IOException {
+        Map<String, Map<String, Object>> layers = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> layer : cache.getLayers().entrySet()) {
+            Map<String, Object> entries = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : layer.getValue().entrySet()) {
+                if (isSupported(entry.getValue())) {
+                    entries.put(entry.getKey(), entry.getValue());
+                }
+            }
+            layers.put(layer.getKey(), Collections.unmodifiableMap(entries));
+        }
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        intern(strings, context);
+        for (Map.Entry<String, Map<String, Object>> layer : layers.entrySet()) {
+            intern(strings, layer.getKey());
+            for (Map.Entry<String, Object> entry : layer.getValue().entrySet()) {
+                intern(strings, entry.getKey());
+                collectStrings(strings, entry.getValue());
+            }
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        File temp = new File(file.getAbsolutePath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeVarInt(out, strings.size());
+            for (String string : strings.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            }
+            writeVarInt(out, strings.get(context));
+            writeVarInt(out, layers.size());
+            for (Map.Entry<String, Map<String, Object>> layer : layers.entrySet()) {
+                writeVarInt(out, strings.get(layer.getKey()));
+                writeVarInt(out, layer.getValue().size());
+                for (Map.Entry<String, Object> entry : layer.getValue().entrySet()) {
+                    writeVarInt(out, strings.get(entry.getKey()));
+                    writeValue(out, strings, entry.getValue());
+                }
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static int read(ResourcePackLayerCache cache, String context, File file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Unrecognized resource snapshot format in " + file.getAbsolutePath());
+            }
+            String[] strings = new String[readVarInt(buffer)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[readVarInt(buffer)];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            if (!strings[readVarInt(buffer)].equals(context)) {
+                return 0;
+            }
+            int layerCount = readVarInt(buffer);
+            for (int i = 0; i < layerCount; i++) {
+                String layerKey = strings[readVarInt(buffer)];
+                int entryCount = readVarInt(buffer);
+                Map<String, Object> layer = new HashMap<>(entryCount * 2);
+                for (int u = 0; u < entryCount; u++) {
+                    String key = strings[readVarInt(buffer)];
+                    layer.put(key, readValue(buffer, strings));
+                }
+                cache.restoreLayer(layerKey, layer);
+            }
+            return layerCount;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException e) {
+            throw new IOException("Corrupted resource snapshot " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private static boolean isSupported(Object value) {
+        if (value == null || value instanceof String || value instanceof Long || value instanceof Double || value instanceof Boolean) {
+            return true;
+        } else if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String) || !isSupported(entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (value instanceof List<?> list) {
+            for (Object element : list) {
+                if (!isSupported(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static void intern(Map<String, Integer> strings, String string) {
+        strings.putIfAbsent(string, strings.size());
+    }
+
+    private static void collectStrings(Map<String, Integer> strings, Object value) {
+        if (value instanceof String str) {
+            intern(strings, str);
+        } else if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                intern(strings, (String) entry.getKey());
+                collectStrings(strings, entry.getValue());
+            }
+        } else if (value instanceof List<?> list) {
+            for (Object element : list) {
+                collectStrings(strings, element);
+            }
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Map<String, Integer> strings, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String str) {
+            out.writeByte(TAG_STRING);
+            writeVarInt(out, strings.get(str));
+        } else if (value instanceof Long l) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(l);
+        } else if (value instanceof Double d) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(b ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof JSONObject json) {
+            out.writeByte(TAG_OBJECT);
+            writeVarInt(out, json.size());
+            for (Object obj : json.entrySet()) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) obj;
+                writeVarInt(out, strings.get((String) entry.getKey()));
+                writeValue(out, strings, entry.getValue());
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(TAG_STRING_TABLE);
+            writeVarInt(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeVarInt(out, strings.get((String) entry.getKey()));
+                writeValue(out, strings, entry.getValue());
+            }
+        } else if (value instanceof List<?> list) {
+            out.writeByte(TAG_ARRAY);
+            writeVarInt(out, list.size());
+            for (Object element : list) {
+                writeValue(out, strings, element);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object readValue(ByteBuffer buffer, String[] strings) throws IOException {
+        int tag = buffer.get();
+        switch (tag) {
+            case TAG_NULL -> {
+                return null;
+            }
+            case TAG_STRING -> {
+                return strings[readVarInt(buffer)];
+            }
+            case TAG_LONG -> {
+                return buffer.getLong();
+            }
+            case TAG_DOUBLE -> {
+                return buffer.getDouble();
+            }
+            case TAG_TRUE -> {
+                return Boolean.TRUE;
+            }
+            case TAG_FALSE -> {
+                return Boolean.FALSE;
+            }
+            case TAG_OBJECT -> {
+                int size = readVarInt(buffer);
+                JSONObject json = new JSONObject();
+                for (int i = 0; i < size; i++) {
+                    String key = strings[readVarInt(buffer)];
+                    json.put(key, readValue(buffer, strings));
+                }
+                return json;
+            }
+            case TAG_STRING_TABLE -> {
+                int size = readVarInt(buffer);
+                Map<String, Object> map = new HashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    String key = strings[readVarInt(buffer)];
+                    map.put(key, readValue(buffer, strings));
+                }
+                return Collections.unmodifiableMap(map);
+            }
+            case TAG_ARRAY -> {
+                int size = readVarInt(buffer);
+                JSONArray array = new JSONArray();
+                for (int i = 0; i < size; i++) {
+                    array.add(readValue(buffer, strings));
+                }
+                return array;
+            }
+            default -> throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new IOException("VarInt is too big");
+            }
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+}
@@ -0,0 +1,436 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+public class ResourcePackMappedZipFile implements ResourcePackFile {
+
+    public static final int MAX_POOLED_INFLATERS = 16;
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    private static final int FLAG_ENCRYPTED = 1;
+
+    private final MappedZip zip;
+    private final String zipPath;
+    private final boolean isDirectory;
+    private final MappedZipEntry zipEntry;
+    private ZipIndexNode<MappedZipEntry> indexNode;
+
+    public ResourcePackMappedZipFile(File resourcePackZip) throws IOException {
+        this.zip = new MappedZip(resourcePackZip);
+        this.zipPath = "";
+        this.isDirectory = true;
+        this.zipEntry = null;
+        this.indexNode = zip.index;
+        zip.rootFile = this;
+    }
+
+    private ResourcePackMappedZipFile(MappedZip zip, String zipPath, boolean isDirectory, MappedZipEntry zipEntry, ZipIndexNode<MappedZipEntry> indexNode) {
+        this.zip = zip;
+        this.zipPath = zipPath;
+        this.isDirectory = isDirectory;
+        this.zipEntry = zipEntry;
+        this.indexNode = indexNode;
+    }
+
+    private ZipIndexNode<MappedZipEntry> getIndexNode() {
+        ZipIndexNode<MappedZipEntry> node = indexNode;
+        if (node == null) {
+            indexNode = node = zip.index.find(zipPath);
+        }
+        return node;
+    }
+
+    private ResourcePackMappedZipFile createChild(String childPath, ZipIndexNode<MappedZipEntry> child) {
+        if (child.hasChildren()) {
+            return new ResourcePackMappedZipFile(zip, childPath, true, null, child);
+        }
+        return new ResourcePackMappedZipFile(zip, childPath, false, child.getEntry(), child);
+    }
+
+    @Override
+    public ResourcePackFile getPackRootFile() {
+        return zip.rootFile;
+    }
+
+    @Override
+    public String getName() {
+        String path = getPath();
+        if (path.contains("/")) {
+            path = path.substring(path.lastIndexOf("/") + 1);
+        }
+        return path;
+    }
+
+    @Override
+    public String getParent() {
+        String path = getPath();
+        if (path.contains("/")) {
+            path = path.substring(0, path.lastIndexOf("/"));
+        } else {
+            return null;
+        }
+        return path;
+    }
+
+    @Override
+    public ResourcePackFile getParentFile() {
+        return new ResourcePackMappedZipFile(zip, getParent(), true, null, null);
+    }
+
+    @Override
+    public String getPath() {
+        return zipPath;
+    }
+
+    @Override
+    public String getAbsolutePath() {
+        String path = getPath();
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        if (zip.absoluteRootPath.contains("\\")) {
+            path = path.replace("/", "\\");
+        }
+        return zip.absoluteRootPath + path;
+    }
+
+    @Override
+    public boolean exists() {
+        return isDirectory || zipEntry != null;
+    }
+
+    @Override
+    public boolean isDirectory() {
+        return isDirectory;
+    }
+
+    @Override
+    public Collection<ResourcePackFile> listFilesAndFolders() {
+        ZipIndexNode<MappedZipEntry> node = getIndexNode();
+        if (node == null || !node.hasChildren()) {
+            return Collections.emptyList();
+        }
+        String prefix = zipPath.isEmpty() ? zipPath : (zipPath + "/");
+        List<ResourcePackFile> list = new ArrayList<>(node.getChildren().size());
+        for (Map.Entry<String, ZipIndexNode<MappedZipEntry>> entry : node.getChildren().entrySet()) {
+            list.add(createChild(prefix + entry.getKey(), entry.getValue()));
+        }
+        return list;
+    }
+
+    @Override
+    public ResourcePackFile getChild(String name) {
+        String childPath = (zipPath.isEmpty() ? zipPath : (zipPath + "/")) + name;
+        ZipIndexNode<MappedZipEntry> node = getIndexNode();
+        ZipIndexNode<MappedZipEntry> child = node == null ? null : node.find(name);
+        if (child != null && child.exists()) {
+            return createChild(childPath, child);
+        }
+        return new ResourcePackMappedZipFile(zip, childPath, false, null, null);
+    }
+
+    @Override
+    public Collection<ResourcePackFile> listFilesRecursively(String[] extensions) {
+        ZipIndexNode<MappedZipEntry> node = getIndexNode();
+        if (node == null || !node.hasChildren()) {
+            return Collections.emptyList();
+        }
+        List<ZipIndexNode<MappedZipEntry>> leaves = node.collectEntries(new ArrayList<>());
+        List<ResourcePackFile> list = new ArrayList<>(leaves.size());
+        for (ZipIndexNode<MappedZipEntry> leaf : leaves) {
+            String entryPath = leaf.getEntry().name;
+            if (extensions == null || Arrays.stream(extensions).anyMatch(each -> entryPath.endsWith("." + each))) {
+                list.add(new ResourcePackMappedZipFile(zip, entryPath, false, leaf.getEntry(), leaf));
+            }
+        }
+        return list;
+    }
+
+    public ByteBuffer getByteBuffer() throws IOException {
+        if (zipEntry == null) {
+            throw new IOException(getAbsolutePath() + " is not a file");
+        }
+        return zip.read(zipEntry);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new ByteBufferInputStream(getByteBuffer());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ResourcePackMappedZipFile that = (ResourcePackMappedZipFile) o;
+        return zip == that.zip && Objects.equals(zipPath, that.zipPath);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(zip.absoluteRootPath, zipPath);
+    }
+
+    @Override
+    public void close() {
+        zip.close();
+    }
+
+    private static final class MappedZipEntry {
+
+        private final String name;
+        private final int method;
+        private final int flags;
+        private final long compressedSize;
+        private final long uncompressedSize;
+        private final long localHeaderOffset;
+        private volatile long dataOffset;
+
+        private MappedZipEntry(String name, int method, int flags, long compressedSize, long uncompressedSize, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.flags = flags;
+            this.compressedSize = compressedSize;
+            this.uncompressedSize = uncompressedSize;
+            this.localHeaderOffset = localHeaderOffset;
+            this.dataOffset = -1;
+        }
+
+    }
+
+    private static final class MappedZip {
+
+        private final String absoluteRootPath;
+        private final MappedByteBuffer buffer;
+        private final ZipIndexNode<MappedZipEntry> index;
+        private final Queue<Inflater> inflaters;
+        private volatile boolean closed;
+        private ResourcePackMappedZipFile rootFile;
+
+        private MappedZip(File file) throws IOException {
+            this.absoluteRootPath = file.getAbsolutePath();
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new ZipException(file.getAbsolutePath() + " is too large to be memory mapped");
+                }
+                this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            this.index = readCentralDirectory();
+            this.inflaters = new ConcurrentLinkedQueue<>();
+            this.closed = false;
+        }
+
+        private ZipIndexNode<MappedZipEntry> readCentralDirectory() throws ZipException {
+            int limit = buffer.limit();
+            int endOfCentralDirectory = -1;
+            for (int i = limit - END_OF_CENTRAL_DIRECTORY_SIZE; i >= Math.max(0, limit - END_OF_CENTRAL_DIRECTORY_SIZE - MAX_COMMENT_LENGTH); i--) {
+                if (buffer.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                    endOfCentralDirectory = i;
+                    break;
+                }
+            }
+            if (endOfCentralDirectory < 0) {
+                throw new ZipException("End of central directory not found in " + absoluteRootPath);
+            }
+            int totalEntries = Short.toUnsignedInt(buffer.getShort(endOfCentralDirectory + 10));
+            long centralDirectoryOffset = Integer.toUnsignedLong(buffer.getInt(endOfCentralDirectory + 16));
+            if (totalEntries == 0xFFFF || centralDirectoryOffset == 0xFFFFFFFFL) {
+                throw new ZipException("ZIP64 archives are not supported by the memory mapped reader: " + absoluteRootPath);
+            }
+            if (centralDirectoryOffset > endOfCentralDirectory) {
+                throw new ZipException("Invalid central directory offset in " + absoluteRootPath);
+            }
+            ZipIndexNode<MappedZipEntry> root = new ZipIndexNode<>();
+            int position = (int) centralDirectoryOffset;
+            for (int i = 0; i < totalEntries; i++) {
+                if ((long) position + CENTRAL_DIRECTORY_HEADER_SIZE > limit || buffer.getInt(position) != CENTRAL_DIRECTORY_SIGNATURE) {
+                    throw new ZipException("Invalid central directory entry " + i + " in " + absoluteRootPath);
+                }
+                int flags = Short.toUnsignedInt(buffer.getShort(position + 8));
+                int method = Short.toUnsignedInt(buffer.getShort(position + 10));
+                long compressedSize = Integer.toUnsignedLong(buffer.getInt(position + 20));
+                long uncompressedSize = Integer.toUnsignedLong(buffer.getInt(position + 24));
+                int nameLength = Short.toUnsignedInt(buffer.getShort(position + 28));
+                int extraLength = Short.toUnsignedInt(buffer.getShort(position + 30));
+                int commentLength = Short.toUnsignedInt(buffer.getShort(position + 32));
+                long localHeaderOffset = Integer.toUnsignedLong(buffer.getInt(position + 42));
+                long entryEnd = (long) position + CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+                if (entryEnd > limit) {
+                    throw new ZipException("Central directory entry " + i + " extends past the end of " + absoluteRootPath);
+                }
+                if (localHeaderOffset + LOCAL_HEADER_SIZE > limit) {
+                    throw new ZipException("Invalid local header offset for central directory entry " + i + " in " + absoluteRootPath);
+                }
+                byte[] nameBytes = new byte[nameLength];
+                buffer.get(position + CENTRAL_DIRECTORY_HEADER_SIZE, nameBytes);
+                String name = new String(nameBytes, StandardCharsets.UTF_8);
+                if (!name.endsWith("/")) {
+                    root.add(name, new MappedZipEntry(name, method, flags, compressedSize, uncompressedSize, localHeaderOffset), i);
+                }
+                position = (int) entryEnd;
+            }
+            return root;
+        }
+
+        private ByteBuffer read(MappedZipEntry entry) throws IOException {
+            if (closed) {
+                throw new IOException(absoluteRootPath + " has been closed");
+            }
+            if ((entry.flags & FLAG_ENCRYPTED) != 0) {
+                throw new ZipException("Encrypted entry " + entry.name + " is not supported");
+            }
+            if (entry.compressedSize > Integer.MAX_VALUE || entry.uncompressedSize > Integer.MAX_VALUE) {
+                throw new ZipException("Entry " + entry.name + " is too large");
+            }
+            ByteBuffer data = buffer.slice(getDataOffset(entry), (int) entry.compressedSize);
+            switch (entry.method) {
+                case METHOD_STORED:
+                    return data.asReadOnlyBuffer();
+                case METHOD_DEFLATED:
+                    return inflate(entry, data);
+                default:
+                    throw new ZipException("Unsupported compression method " + entry.method + " for " + entry.name);
+            }
+        }
+
+        private int getDataOffset(MappedZipEntry entry) throws ZipException {
+            long dataOffset = entry.dataOffset;
+            if (dataOffset < 0) {
+                int localHeaderOffset = (int) entry.localHeaderOffset;
+                if (buffer.getInt(localHeaderOffset) != LOCAL_HEADER_SIGNATURE) {
+                    throw new ZipException("Invalid local header for " + entry.name);
+                }
+                int nameLength = Short.toUnsignedInt(buffer.getShort(localHeaderOffset + 26));
+                int extraLength = Short.toUnsignedInt(buffer.getShort(localHeaderOffset + 28));
+                entry.dataOffset = dataOffset = localHeaderOffset + LOCAL_HEADER_SIZE + nameLength + extraLength;
+            }
+            if (dataOffset + entry.compressedSize > buffer.limit()) {
+                throw new ZipException("Entry " + entry.name + " extends past the end of " + absoluteRootPath);
+            }
+            return (int) dataOffset;
+        }
+
+        private ByteBuffer inflate(MappedZipEntry entry, ByteBuffer data) throws ZipException {
+            Inflater inflater = inflaters.poll();
+            if (inflater == null) {
+                inflater = new Inflater(true);
+            }
+            try {
+                ByteBuffer output = ByteBuffer.allocate((int) entry.uncompressedSize);
+                inflater.setInput(data);
+                while (output.hasRemaining() && !inflater.finished()) {
+                    if (inflater.inflate(output) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new ZipException("Unexpected end of deflated data for " + entry.name);
+                    }
+                }
+                return output.flip();
+            } catch (DataFormatException e) {
+                throw new ZipException("Invalid deflated data for " + entry.name + ": " + e.getMessage());
+            } finally {
+                inflater.reset();
+                if (closed || inflaters.size() >= MAX_POOLED_INFLATERS) {
+                    inflater.end();
+                } else {
+                    inflaters.offer(inflater);
+                }
+            }
+        }
+
+        private void close() {
+            closed = true;
+            Inflater inflater;
+            while ((inflater = inflaters.poll()) != null) {
+                inflater.end();
+            }
+        }
+
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? Byte.toUnsignedInt(buffer.get()) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            length = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, length);
+            return length;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+    }
+
+}
@@ -35,6 +35,8 @@ public class ResourcePackZipEntryFile implements ResourcePackFile {
     private final String zipPath;
     private final boolean isDirectory;
     private final ZipEntry zipEntry;
+    private final ZipIndexNode<ZipEntry> indexRoot;
+    private ZipIndexNode<ZipEntry> indexNode;
 
     public ResourcePackZipEntryFile(File resourcePackZip) throws IOException {
         this.absoluteRootPath = resourcePackZip.getAbsolutePath();
@@ -43,15 +45,47 @@ public class ResourcePackZipEntryFile implements ResourcePackFile {
         this.zipPath = "";
         this.isDirectory = true;
         this.zipEntry = null;
+        this.indexRoot = buildIndex(zipRoot);
+        this.indexNode = indexRoot;
     }
 
-    private ResourcePackZipEntryFile(String absoluteRootPath, ResourcePackZipEntryFile zipRootFile, ZipFile zipRoot, String zipPath, boolean isDirectory, ZipEntry zipEntry) {
+    private ResourcePackZipEntryFile(String absoluteRootPath, ResourcePackZipEntryFile zipRootFile, ZipFile zipRoot, String zipPath, boolean isDirectory, ZipEntry zipEntry, ZipIndexNode<ZipEntry> indexNode) {
         this.absoluteRootPath = absoluteRootPath;
         this.zipRootFile = zipRootFile;
         this.zipRoot = zipRoot;
         this.zipPath = zipPath;
         this.isDirectory = isDirectory;
         this.zipEntry = zipEntry;
+        this.indexRoot = zipRootFile.indexRoot;
+        this.indexNode = indexNode;
+    }
+
+    private static ZipIndexNode<ZipEntry> buildIndex(ZipFile zipFile) {
+        ZipIndexNode<ZipEntry> root = new ZipIndexNode<>();
+        Enumeration<? extends ZipEntry> itr = zipFile.entries();
+        int order = 0;
+        while (itr.hasMoreElements()) {
+            ZipEntry entry = itr.nextElement();
+            if (!entry.isDirectory()) {
+                root.add(entry.getName(), entry, order++);
+            }
+        }
+        return root;
+    }
+
+    private ZipIndexNode<ZipEntry> getIndexNode() {
+        ZipIndexNode<ZipEntry> node = indexNode;
+        if (node == null) {
+            indexNode = node = indexRoot.find(zipPath);
+        }
+        return node;
+    }
+
+    private ResourcePackZipEntryFile createChild(String childPath, ZipIndexNode<ZipEntry> child) {
+        if (child.hasChildren()) {
+            return new ResourcePackZipEntryFile(absoluteRootPath, zipRootFile, zipRoot, childPath, true, null, child);
+        }
+        return new ResourcePackZipEntryFile(absoluteRootPath, zipRootFile, zipRoot, childPath, false, child.getEntry(), child);
     }
 
     public ZipFile getZipRoot() {
@@ -93,7 +127,7 @@ public class ResourcePackZipEntryFile implements ResourcePackFile {
 
     @Override
     public ResourcePackFile getParentFile() {
-        return new ResourcePackZipEntryFile(absoluteRootPath, zipRootFile, zipRoot, getParent(), true, null);
+        return new ResourcePackZipEntryFile(absoluteRootPath, zipRootFile, zipRoot, getParent(), true, null, null);
     }
 
     @Override
@@ -125,38 +159,27 @@ public class ResourcePackZipEntryFile implements ResourcePackFile {
 
     @Override
     public Collection<ResourcePackFile> listFilesAndFolders() {
-        Set<ResourcePackFile> set = new HashSet<>();
-        Enumeration<? extends ZipEntry> itr = zipRoot.entries();
-        while (itr.hasMoreElements()) {
-            ZipEntry entry = itr.nextElement();
-            if (!entry.isDirectory()) {
-                String entryPath = entry.getName();
-                if (!entryPath.equals(zipPath) && entryPath.startsWith(zipPath)) {
-                    String relativePath = entryPath.substring(zipPath.length());
-                    if (relativePath.startsWith("/")) {
-                        relativePath = relativePath.substring(1);
-                    }
-                    if (relativePath.contains("/")) {
-                        String folderName = relativePath.substring(0, relativePath.indexOf("/"));
-                        set.add(new ResourcePackZipEntryFile(absoluteRootPath, zipRootFile, zipRoot, (zipPath.isEmpty() ? zipPath : (zipPath + "/")) + folderName, true, null));
-                    } else {
-                        set.add(new ResourcePackZipEntryFile(absoluteRootPath, zipRootFile, zipRoot, entryPath, false, entry));
-                    }
-                }
-            }
+        ZipIndexNode<ZipEntry> node = getIndexNode();
+        if (node == null || !node.hasChildren()) {
+            return Collections.emptyList();
+        }
+        String prefix = zipPath.isEmpty() ? zipPath : (zipPath + "/");
+        List<ResourcePackFile> list = new ArrayList<>(node.getChildren().size());
+        for (Map.Entry<String, ZipIndexNode<ZipEntry>> entry : node.getChildren().entrySet()) {
+            list.add(createChild(prefix + entry.getKey(), entry.getValue()));
         }
-        return set;
+        return list;
     }
 
     @Override
     public ResourcePackFile getChild(String name) {
-        for (ResourcePackFile entry : listFilesAndFolders()) {
-            ResourcePackZipEntryFile zipEntryFile = (ResourcePackZipEntryFile) entry;
-            if (zipEntryFile.zipPath.equals((zipPath.isEmpty() ? zipPath : (zipPath + "/")) + name)) {
-                return zipEntryFile;
-            }
+        String childPath = (zipPath.isEmpty() ? zipPath : (zipPath + "/")) + name;
+        ZipIndexNode<ZipEntry> node = getIndexNode();
+        ZipIndexNode<ZipEntry> child = node == null ? null : node.find(name);
+        if (child != null && child.exists()) {
+            return createChild(childPath, child);
         }
-        return new ResourcePackZipEntryFile(absoluteRootPath, zipRootFile, zipRoot, (zipPath.isEmpty() ? zipPath : (zipPath + "/")) + name, false, null);
+        return new ResourcePackZipEntryFile(absoluteRootPath, zipRootFile, zipRoot, childPath, false, null, null);
     }
 
     @Override
@@ -183,17 +206,16 @@ public class ResourcePackZipEntryFile implements ResourcePackFile {
 
     @Override
     public Collection<ResourcePackFile> listFilesRecursively(String[] extensions) {
-        List<ResourcePackFile> list = new ArrayList<>();
-        Enumeration<? extends ZipEntry> itr = zipRoot.entries();
-        while (itr.hasMoreElements()) {
-            ZipEntry entry = itr.nextElement();
-            if (!entry.isDirectory()) {
-                String entryPath = entry.getName();
-                if ((this.zipEntry == null || !entry.getName().equals(this.zipEntry.getName())) && entryPath.startsWith(zipPath)) {
-                    if (extensions == null || Arrays.stream(extensions).anyMatch(each -> entryPath.endsWith("." + each))) {
-                        list.add(new ResourcePackZipEntryFile(absoluteRootPath, zipRootFile, zipRoot, entryPath, false, entry));
-                    }
-                }
+        ZipIndexNode<ZipEntry> node = getIndexNode();
+        if (node == null || !node.hasChildren()) {
+            return Collections.emptyList();
+        }
+        List<ZipIndexNode<ZipEntry>> leaves = node.collectEntries(new ArrayList<>());
+        List<ResourcePackFile> list = new ArrayList<>(leaves.size());
+        for (ZipIndexNode<ZipEntry> leaf : leaves) {
+            String entryPath = leaf.getEntry().getName();
+            if (extensions == null || Arrays.stream(extensions).anyMatch(each -> entryPath.endsWith("." + each))) {
+                list.add(new ResourcePackZipEntryFile(absoluteRootPath, zipRootFile, zipRoot, entryPath, false, leaf.getEntry(), leaf));
             }
         }
         return list;
@@ -0,0 +1,193 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import com.loohp.interactivechatdiscordsrvaddon.resources.TextureAtlases.TextureAtlasDirectorySource;
+import com.loohp.interactivechatdiscordsrvaddon.resources.TextureAtlases.TextureAtlasFilterSource;
+import com.loohp.interactivechatdiscordsrvaddon.resources.TextureAtlases.TextureAtlasSingleSource;
+import com.loohp.interactivechatdiscordsrvaddon.resources.TextureAtlases.TextureAtlasSource;
+import com.loohp.interactivechatdiscordsrvaddon.resources.TextureAtlases.TextureAtlasSourceType;
+import com.loohp.interactivechatdiscordsrvaddon.resources.TextureAtlases.TextureAtlasUnstitchSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+public class TextureAtlasMatcher {
+
+    public static final TextureAtlasMatcher EMPTY_MATCHER = new TextureAtlasMatcher(null, new HashMap<>(), new ArrayList<>(), new ArrayList<>());
+
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\(?:[1-9]|k<)");
+
+    public static TextureAtlasMatcher compile(Collection<List<TextureAtlasSource>> textureAtlasesLists) {
+        List<TextureAtlasSource> sources = textureAtlasesLists.stream().findFirst().orElse(null);
+        if (sources == null) {
+            return EMPTY_MATCHER;
+        }
+        PrefixNode directories = new PrefixNode();
+        Map<String, IndexedSource> resources = new HashMap<>();
+        List<Pattern> namespaceFilters = new ArrayList<>();
+        List<Pattern> pathFilters = new ArrayList<>();
+        for (int i = 0; i < sources.size(); i++) {
+            TextureAtlasSource source = sources.get(i);
+            IndexedSource indexedSource = new IndexedSource(i, source);
+            TextureAtlasSourceType<?> type = source.getType();
+            if (type.equals(TextureAtlasSourceType.FILTER)) {
+                TextureAtlasFilterSource filterSource = (TextureAtlasFilterSource) source;
+                namespaceFilters.add(filterSource.getNamespace());
+                pathFilters.add(filterSource.getPath());
+            } else if (type.equals(TextureAtlasSourceType.DIRECTORY)) {
+                String directory = ((TextureAtlasDirectorySource) source).getSource();
+                if (directory != null) {
+                    directories.add(directory, indexedSource);
+                }
+            } else if (type.equals(TextureAtlasSourceType.SINGLE)) {
+                resources.putIfAbsent(((TextureAtlasSingleSource) source).getResource(), indexedSource);
+            } else if (type.equals(TextureAtlasSourceType.UNSTITCH)) {
+                resources.putIfAbsent(((TextureAtlasUnstitchSource) source).getResource(), indexedSource);
+            }
+        }
+        return new TextureAtlasMatcher(directories, resources, combine(namespaceFilters), combine(pathFilters));
+    }
+
+    private static List<Pattern> combine(List<Pattern> patterns) {
+        if (patterns.size() <= 1) {
+            return patterns;
+        }
+        List<Pattern> combined = new ArrayList<>();
+        List<String> alternatives = new ArrayList<>();
+        for (Pattern pattern : patterns) {
+            if (pattern.flags() != 0 || BACK_REFERENCE.matcher(pattern.pattern()).find()) {
+                combined.add(pattern);
+            } else {
+                alternatives.add("(?:" + pattern.pattern() + ")");
+            }
+        }
+        if (!alternatives.isEmpty()) {
+            combined.add(Pattern.compile(String.join("|", alternatives)));
+        }
+        return combined;
+    }
+
+    private final PrefixNode directories;
+    private final Map<String, IndexedSource> resources;
+    private final List<Pattern> namespaceFilters;
+    private final List<Pattern> pathFilters;
+    private final Map<String, Boolean> filteredNamespaces;
+
+    private TextureAtlasMatcher(PrefixNode directories, Map<String, IndexedSource> resources, List<Pattern> namespaceFilters, List<Pattern> pathFilters) {
+        this.directories = directories;
+        this.resources = resources;
+        this.namespaceFilters = namespaceFilters;
+        this.pathFilters = pathFilters;
+        this.filteredNamespaces = new ConcurrentHashMap<>();
+    }
+
+    public boolean isEmpty() {
+        return directories == null;
+    }
+
+    public TextureAtlasSource match(String namespace, String relativePath) {
+        if (directories == null) {
+            return null;
+        }
+        IndexedSource result = directories.findFirst(relativePath);
+        IndexedSource resource = resources.get(relativePath);
+        if (resource != null && (result == null || resource.getIndex() < result.getIndex())) {
+            result = resource;
+        }
+        if (result == null) {
+            return null;
+        }
+        if (filteredNamespaces.computeIfAbsent(namespace, key -> matchesAny(namespaceFilters, key)) || matchesAny(pathFilters, relativePath)) {
+            return null;
+        }
+        return result.getSource();
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String input) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(input).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class IndexedSource {
+
+        private final int index;
+        private final TextureAtlasSource source;
+
+        private IndexedSource(int index, TextureAtlasSource source) {
+            this.index = index;
+            this.source = source;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public TextureAtlasSource getSource() {
+            return source;
+        }
+    }
+
+    private static class PrefixNode {
+
+        private final Map<Character, PrefixNode> children;
+        private IndexedSource source;
+
+        private PrefixNode() {
+            this.children = new HashMap<>();
+            this.source = null;
+        }
+
+        private void add(String prefix, IndexedSource source) {
+            PrefixNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), k -> new PrefixNode());
+            }
+            if (node.source == null) {
+                node.source = source;
+            }
+        }
+
+        private IndexedSource findFirst(String path) {
+            IndexedSource result = source;
+            PrefixNode node = this;
+            for (int i = 0; i < path.length(); i++) {
+                node = node.children.get(path.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                if (node.source != null && (result == null || node.source.getIndex() < result.getIndex())) {
+                    result = node.source;
+                }
+            }
+            return result;
+        }
+    }
+
+}
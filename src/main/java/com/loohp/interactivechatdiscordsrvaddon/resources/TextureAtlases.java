@@ -20,15 +20,13 @@
 
 package com.loohp.interactivechatdiscordsrvaddon.resources;
 
+import com.google.gson.stream.JsonReader;
 import com.loohp.interactivechatdiscordsrvaddon.graphics.ImageUtils;
-import org.apache.commons.io.input.BOMInputStream;
+import com.loohp.interactivechatdiscordsrvaddon.utils.JsonUtils;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 
 import java.awt.image.BufferedImage;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
@@ -45,7 +43,6 @@ public class TextureAtlases {
             return EMPTY_ATLAS;
         }
         Map<TextureAtlasType, List<TextureAtlasSource>> sources = new EnumMap<>(TextureAtlasType.class);
-        JSONParser parser = new JSONParser();
         for (ResourcePackFile file : folder.listFilesAndFolders()) {
             try {
                 String name = file.getName();
@@ -55,50 +52,58 @@ public class TextureAtlases {
                     if (type == null) {
                         continue;
                     }
-                    InputStreamReader reader = new InputStreamReader(new BOMInputStream(file.getInputStream()), StandardCharsets.UTF_8);
-                    JSONObject rootJson = (JSONObject) parser.parse(reader);
-                    reader.close();
-                    JSONArray sourcesJson = (JSONArray) rootJson.get("sources");
-                    List<TextureAtlasSource> textureAtlasSources = new ArrayList<>(sourcesJson.size());
-                    for (Object obj : sourcesJson) {
-                        JSONObject sourceJson = (JSONObject) obj;
-                        String sourceTypeName = (String) sourceJson.get("type");
-                        TextureAtlasSourceType<?> sourceType = TextureAtlasSourceType.fromName(sourceTypeName);
-                        if (sourceType == null) {
-                            continue;
-                        }
-                        TextureAtlasSource textureAtlasSource;
-                        if (sourceType.equals(TextureAtlasSourceType.DIRECTORY)) {
-                            String source = (String) sourceJson.get("source");
-                            String prefix = (String) sourceJson.get("prefix");
-                            textureAtlasSource = new TextureAtlasDirectorySource(source, prefix);
-                        } else if (sourceType.equals(TextureAtlasSourceType.SINGLE)) {
-                            String resource = (String) sourceJson.get("resource");
-                            String sprite = (String) sourceJson.getOrDefault("sprite", resource);
-                            textureAtlasSource = new TextureAtlasDirectorySource(resource, sprite);
-                        } else if (sourceType.equals(TextureAtlasSourceType.FILTER)) {
-                            Pattern namespace = Pattern.compile((String) sourceJson.get("namespace"));
-                            Pattern path = Pattern.compile((String) sourceJson.get("path"));
-                            textureAtlasSource = new TextureAtlasFilterSource(namespace, path);
-                        } else if (sourceType.equals(TextureAtlasSourceType.UNSTITCH)) {
-                            String resource = (String) sourceJson.get("resource");
-                            double divisorX = ((Number) sourceJson.get("divisor_x")).doubleValue();
-                            double divisorY = ((Number) sourceJson.get("divisor_y")).doubleValue();
-                            JSONArray regionsJson = (JSONArray) sourceJson.get("regions");
-                            List<TextureAtlasUnstitchSource.Region> regions = new ArrayList<>(regionsJson.size());
-                            for (Object obj1 : regionsJson) {
-                                JSONObject regionJson = (JSONObject) obj1;
-                                String sprite = (String) regionJson.get("resource");
-                                double x = ((Number) regionJson.get("x")).doubleValue();
-                                double y = ((Number) regionJson.get("y")).doubleValue();
-                                double width = ((Number) regionJson.get("width")).doubleValue();
-                                double height = ((Number) regionJson.get("height")).doubleValue();
+                    List<TextureAtlasSource> textureAtlasSources = new ArrayList<>();
+                    try (JsonReader reader = JsonUtils.createReader(file.getInputStream())) {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if (!reader.nextName().equals("sources")) {
+                                reader.skipValue();
+                                continue;
+                            }
+                            reader.beginArray();
+                            while (reader.hasNext()) {
+                                JSONObject sourceJson = JsonUtils.readJSONObject(reader);
+                                String sourceTypeName = (String) sourceJson.get("type");
+                                TextureAtlasSourceType<?> sourceType = TextureAtlasSourceType.fromName(sourceTypeName);
+                                if (sourceType == null) {
+                                    continue;
+                                }
+                                TextureAtlasSource textureAtlasSource;
+                                if (sourceType.equals(TextureAtlasSourceType.DIRECTORY)) {
+                                    String source = (String) sourceJson.get("source");
+                                    String prefix = (String) sourceJson.get("prefix");
+                                    textureAtlasSource = new TextureAtlasDirectorySource(source, prefix);
+                                } else if (sourceType.equals(TextureAtlasSourceType.SINGLE)) {
+                                    String resource = (String) sourceJson.get("resource");
+                                    String sprite = (String) sourceJson.getOrDefault("sprite", resource);
+                                    textureAtlasSource = new TextureAtlasDirectorySource(resource, sprite);
+                                } else if (sourceType.equals(TextureAtlasSourceType.FILTER)) {
+                                    Pattern namespace = Pattern.compile((String) sourceJson.get("namespace"));
+                                    Pattern path = Pattern.compile((String) sourceJson.get("path"));
+                                    textureAtlasSource = new TextureAtlasFilterSource(namespace, path);
+                                } else if (sourceType.equals(TextureAtlasSourceType.UNSTITCH)) {
+                                    String resource = (String) sourceJson.get("resource");
+                                    double divisorX = ((Number) sourceJson.get("divisor_x")).doubleValue();
+                                    double divisorY = ((Number) sourceJson.get("divisor_y")).doubleValue();
+                                    JSONArray regionsJson = (JSONArray) sourceJson.get("regions");
+                                    List<TextureAtlasUnstitchSource.Region> regions = new ArrayList<>(regionsJson.size());
+                                    for (Object obj1 : regionsJson) {
+                                        JSONObject regionJson = (JSONObject) obj1;
+                                        String sprite = (String) regionJson.get("resource");
+                                        double x = ((Number) regionJson.get("x")).doubleValue();
+                                        double y = ((Number) regionJson.get("y")).doubleValue();
+                                        double width = ((Number) regionJson.get("width")).doubleValue();
+                                        double height = ((Number) regionJson.get("height")).doubleValue();
+                                    }
+                                    textureAtlasSource = new TextureAtlasUnstitchSource(resource, divisorX, divisorY, regions);
+                                } else {
+                                    continue;
+                                }
+                                textureAtlasSources.add(textureAtlasSource);
                             }
-                            textureAtlasSource = new TextureAtlasUnstitchSource(resource, divisorX, divisorY, regions);
-                        } else {
-                            continue;
+                            reader.endArray();
                         }
-                        textureAtlasSources.add(textureAtlasSource);
+                        reader.endObject();
                     }
                     sources.put(type, Collections.unmodifiableList(textureAtlasSources));
                 }
@@ -110,9 +115,19 @@ public class TextureAtlases {
     }
 
     private final Map<TextureAtlasType, List<TextureAtlasSource>> textureAtlases;
+    private volatile TextureAtlasMatcher matcher;
 
     public TextureAtlases(Map<TextureAtlasType, List<TextureAtlasSource>> textureAtlases) {
         this.textureAtlases = Collections.unmodifiableMap(textureAtlases);
+        this.matcher = null;
+    }
+
+    public TextureAtlasMatcher getMatcher() {
+        TextureAtlasMatcher matcher = this.matcher;
+        if (matcher == null) {
+            this.matcher = matcher = TextureAtlasMatcher.compile(textureAtlases.values());
+        }
+        return matcher;
     }
 
     public Map<TextureAtlasType, List<TextureAtlasSource>> getTextureAtlases() {
@@ -0,0 +1,117 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class ZipIndexNode<E> {
+
+    private Map<String, ZipIndexNode<E>> children;
+    private E entry;
+    private int order;
+
+    ZipIndexNode() {
+        this.children = null;
+        this.entry = null;
+        this.order = -1;
+    }
+
+    void add(String path, E entry, int order) {
+        ZipIndexNode<E> node = this;
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                node = node.getOrCreateChild(segment);
+            }
+        }
+        if (node != this) {
+            node.entry = entry;
+            node.order = order;
+        }
+    }
+
+    boolean hasChildren() {
+        return children != null && !children.isEmpty();
+    }
+
+    Map<String, ZipIndexNode<E>> getChildren() {
+        return children;
+    }
+
+    E getEntry() {
+        return entry;
+    }
+
+    boolean exists() {
+        return entry != null || hasChildren();
+    }
+
+    private ZipIndexNode<E> getOrCreateChild(String name) {
+        if (children == null) {
+            children = new LinkedHashMap<>();
+        }
+        return children.computeIfAbsent(name, k -> new ZipIndexNode<>());
+    }
+
+    ZipIndexNode<E> find(String path) {
+        ZipIndexNode<E> node = this;
+        int start = 0;
+        int length = path.length();
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                if (node.children == null) {
+                    return null;
+                }
+                node = node.children.get(path.substring(start, end));
+                if (node == null) {
+                    return null;
+                }
+            }
+            start = end + 1;
+        }
+        return node;
+    }
+
+    List<ZipIndexNode<E>> collectEntries(List<ZipIndexNode<E>> leaves) {
+        collectEntries0(leaves);
+        leaves.sort(Comparator.comparingInt(each -> each.order));
+        return leaves;
+    }
+
+    private void collectEntries0(List<ZipIndexNode<E>> leaves) {
+        if (children == null) {
+            return;
+        }
+        for (ZipIndexNode<E> child : children.values()) {
+            if (child.entry != null) {
+                leaves.add(child);
+            }
+            child.collectEntries0(leaves);
+        }
+    }
+
+}
@@ -191,7 +191,7 @@ public class BitmapFont extends MinecraftFont {
                 throw new ResourceLoadingException(resourceLocation + " is not a valid font resource (Defined in " + provider.getNamespacedKey() + ")");
             }
         }
-        BufferedImage fontBaseImage = resource.getTexture();
+        BufferedImage fontBaseImage = resource.getReadOnlyTexture();
 
         int yIncrement = fontBaseImage.getHeight() / chars.size();
         this.scale = Math.abs(height == 0 ? 0 : yIncrement / height);
@@ -20,10 +20,6 @@
 
 package com.loohp.interactivechatdiscordsrvaddon.resources.fonts;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.stream.JsonReader;
 import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
 import com.loohp.interactivechatdiscordsrvaddon.resources.AbstractManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceLoadingException;
@@ -31,18 +27,16 @@ import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourcePackFile;
 import com.loohp.interactivechatdiscordsrvaddon.resources.textures.GeneratedTextureResource;
 import com.loohp.interactivechatdiscordsrvaddon.resources.textures.TextureResource;
+import com.loohp.interactivechatdiscordsrvaddon.utils.JsonUtils;
 import net.kyori.adventure.key.Key;
-import org.apache.commons.io.input.BOMInputStream;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 public class FontManager extends AbstractManager implements IFontManager {
@@ -50,20 +44,8 @@ public class FontManager extends AbstractManager implements IFontManager {
     public static final Key DEFAULT_FONT = Key.key("minecraft:default");
     public static final Key UNIFORM_FONT = Key.key("minecraft:uniform");
 
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
-
     public static JSONObject specialReadProvider(ResourcePackFile file) throws IOException, ParseException {
-        try (InputStreamReader reader = new InputStreamReader(new BOMInputStream(file.getInputStream()), StandardCharsets.UTF_8)) {
-            return (JSONObject) new JSONParser().parse(reader);
-        } catch (ParseException e) {
-            try (InputStreamReader reader = new InputStreamReader(new BOMInputStream(file.getInputStream()), StandardCharsets.UTF_8)) {
-                JsonReader jsonReader = new JsonReader(reader);
-                jsonReader.setLenient(false);
-                JsonObject jsonObject = GSON.getAdapter(JsonObject.class).read(jsonReader);
-                String json = GSON.toJson(jsonObject);
-                return (JSONObject) new JSONParser().parse(json);
-            }
-        }
+        return JsonUtils.readJSONObject(file.getInputStream());
     }
 
     private Key defaultKey;
@@ -79,22 +61,38 @@ public class FontManager extends AbstractManager implements IFontManager {
 
     @Override
     protected void loadDirectory(String namespace, ResourcePackFile root, Object... meta) {
+        prepareDirectory(namespace, root, meta).run();
+    }
+
+    @Override
+    protected Runnable prepareDirectory(String namespace, ResourcePackFile root, Object... meta) {
         if (!root.exists() || !root.isDirectory()) {
             throw new IllegalArgumentException(root.getAbsolutePath() + " is not a directory.");
         }
-        Map<String, ResourcePackFile> fileList = files.computeIfAbsent(namespace, k -> new HashMap<>());
-        JSONParser parser = new JSONParser();
-        Map<String, FontProvider> fonts = new HashMap<>(this.fonts);
         Collection<ResourcePackFile> files = root.listFilesRecursively();
+        Map<ResourcePackFile, JSONObject> jsons = new ConcurrentHashMap<>();
+        files.parallelStream().filter(file -> file.getName().endsWith(".json")).forEach(file -> {
+            try {
+                jsons.put(file, manager.readParsedResource(file, "font", FontManager::specialReadProvider));
+            } catch (Exception e) {
+                new ResourceLoadingException("Unable to load font " + file.getAbsolutePath(), e).printStackTrace();
+            }
+        });
+        return () -> loadFonts(namespace, files, jsons);
+    }
+
+    private void loadFonts(String namespace, Collection<ResourcePackFile> files, Map<ResourcePackFile, JSONObject> jsons) {
+        Map<String, ResourcePackFile> fileList = this.files.computeIfAbsent(namespace, k -> new HashMap<>());
+        Map<String, FontProvider> fonts = new HashMap<>(this.fonts);
         for (ResourcePackFile file : files) {
             fileList.put(file.getName(), file);
         }
         for (ResourcePackFile file : files) {
-            if (file.getName().endsWith(".json")) {
+            JSONObject rootJson = jsons.get(file);
+            if (rootJson != null) {
                 try {
                     String key = namespace + ":" + file.getName();
                     key = key.substring(0, key.lastIndexOf("."));
-                    JSONObject rootJson = specialReadProvider(file);
                     List<MinecraftFont> providedFonts = new ArrayList<>();
                     int index = -1;
                     for (Object obj : (JSONArray) rootJson.get("providers")) {
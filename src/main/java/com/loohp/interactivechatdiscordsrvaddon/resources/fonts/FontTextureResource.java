@@ -73,9 +73,9 @@ public class FontTextureResource {
     public BufferedImage getFontImage() {
         BufferedImage image;
         if (resourceWidth < 1 || resourceHeight < 1) {
-            image = resource.getTexture();
+            image = resource.getReadOnlyTexture();
         } else {
-            image = resource.getTexture(resourceWidth, resourceHeight);
+            image = resource.getReadOnlyTexture(resourceWidth, resourceHeight);
         }
         if (CACHE_TIME > 0) {
             Reference<BufferedImage> internalReference = resource.getUnsafe().getTextureReference();
@@ -88,9 +88,9 @@ public class FontTextureResource {
             }
         }
         if (width < 1 || height < 1) {
-            return image;
+            return ImageUtils.copyImage(image);
         }
-        return image.getSubimage(x, y, width, height);
+        return ImageUtils.copyAndGetSubImage(image, x, y, width, height);
     }
 
     public TextureResource getResource() {
@@ -81,7 +81,7 @@ public class LegacyUnicodeFont extends MinecraftFont {
             if (resource == null) {
                 continue;
             }
-            BufferedImage fontBaseImage = resource.getTexture(256, 256);
+            BufferedImage fontBaseImage = resource.getReadOnlyTexture(256, 256);
             int u = 0;
             for (int y = 0; y < 256; y += 16) {
                 for (int x = 0; x < 256; x += 16) {
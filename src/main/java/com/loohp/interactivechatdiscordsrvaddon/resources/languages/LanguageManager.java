@@ -20,129 +20,291 @@
 
 package com.loohp.interactivechatdiscordsrvaddon.resources.languages;
 
+import com.google.gson.stream.JsonReader;
 import com.loohp.interactivechatdiscordsrvaddon.resources.AbstractManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceLoadingException;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourcePackFile;
+import com.loohp.interactivechatdiscordsrvaddon.utils.JsonUtils;
 import org.apache.commons.io.input.BOMInputStream;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class LanguageManager extends AbstractManager implements ILanguageManager {
 
     public static TranslateFunction defaultTranslateFunction(LanguageManager manager) {
-        return (translationKey, language) -> {
-            Map<String, String> mapping = manager.translations.get(language);
-            if (mapping == null) {
-                return translationKey;
+        return defaultTranslateFunction(manager, (translationKey, language) -> translationKey);
+    }
+
+    public static TranslateFunction defaultTranslateFunction(LanguageManager manager, TranslateFunction fallback) {
+        return new TranslateFunction() {
+            @Override
+            public String apply(String translationKey, String language) {
+                String translation = manager.translations.get(language, translationKey);
+                return translation == null ? fallback.apply(translationKey, language) : translation;
+            }
+
+            @Override
+            public UnaryOperator<String> ofLanguage(String language) {
+                TranslationStore.LocaleTranslations translations = manager.translations.getLocale(language);
+                if (translations == null) {
+                    return translationKey -> apply(translationKey, language);
+                }
+                UnaryOperator<String> fallbackFunction = fallback.ofLanguage(language);
+                return translationKey -> {
+                    String translation = translations.get(translationKey);
+                    return translation == null ? fallbackFunction.apply(translationKey) : translation;
+                };
             }
-            return mapping.getOrDefault(translationKey, translationKey);
         };
     }
 
     public static Supplier<Collection<String>> defaultAvailableLanguagesSupplier(LanguageManager manager) {
-        return manager.translations::keySet;
+        return () -> {
+            Set<String> locales = new HashSet<>(manager.translations.getLocales());
+            locales.addAll(manager.localeFiles.keySet());
+            return locales;
+        };
     }
 
     private final Map<String, LanguageMeta> languageMeta;
-    private final Map<String, Map<String, String>> translations;
+    private final TranslationStore translations;
+    private final Map<String, LocaleFiles> localeFiles;
+    private final Set<String> pinnedLocales;
     private final List<Consumer<LanguageReloadEvent>> reloadListeners;
-    private TranslateFunction translateFunction;
+    private final List<Consumer<LocaleLoadEvent>> localeLoadListeners;
+    private final TranslateFunction lazyTranslateFunction;
+    private volatile TranslateFunction translateFunction;
     private Supplier<Collection<String>> availableLanguagesSupplier;
+    private volatile boolean lazyLoading;
 
     public LanguageManager(ResourceManager manager) {
         super(manager);
         this.languageMeta = new HashMap<>();
-        this.translations = new HashMap<>();
+        this.translations = new TranslationStore();
+        this.localeFiles = new ConcurrentHashMap<>();
+        this.pinnedLocales = ConcurrentHashMap.newKeySet();
         this.reloadListeners = Collections.synchronizedList(new LinkedList<>());
+        this.localeLoadListeners = new CopyOnWriteArrayList<>();
+        this.lazyTranslateFunction = new TranslateFunction() {
+            @Override
+            public String apply(String translationKey, String language) {
+                loadLocale(language);
+                return translateFunction.apply(translationKey, language);
+            }
+
+            @Override
+            public UnaryOperator<String> ofLanguage(String language) {
+                loadLocale(language);
+                return translateFunction.ofLanguage(language);
+            }
+        };
         this.translateFunction = defaultTranslateFunction(this);
         this.availableLanguagesSupplier = defaultAvailableLanguagesSupplier(this);
+        this.lazyLoading = false;
+    }
+
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    public void setLazyLoading(boolean lazyLoading) {
+        this.lazyLoading = lazyLoading;
     }
 
     @Override
     protected void loadDirectory(String namespace, ResourcePackFile root, Object... meta) {
+        prepareDirectory(namespace, root, meta).run();
+    }
+
+    @Override
+    protected Runnable prepareDirectory(String namespace, ResourcePackFile root, Object... meta) {
         if (!root.exists() || !root.isDirectory()) {
             throw new IllegalArgumentException(root.getAbsolutePath() + " is not a directory.");
         }
+        Map<? extends String, ? extends LanguageMeta> languageMeta;
         try {
-            this.languageMeta.putAll((Map<? extends String, ? extends LanguageMeta>) meta[0]);
+            languageMeta = (Map<? extends String, ? extends LanguageMeta>) meta[0];
         } catch (Throwable e) {
             new ResourceLoadingException("Invalid meta arguments, Map<? extends String, ? extends LanguageMeta> expected!", e).printStackTrace();
+            languageMeta = Collections.emptyMap();
         }
-        JSONParser parser = new JSONParser();
-        Map<String, Map<String, String>> translations = new HashMap<>();
-        for (ResourcePackFile file : root.listFilesRecursively()) {
+        Map<? extends String, ? extends LanguageMeta> finalLanguageMeta = languageMeta;
+        List<ResourcePackFile> files = root.listFilesRecursively().stream().filter(file -> {
             String name = file.getName();
-            if (!manager.isFlattenLegacy() && name.endsWith(".json")) {
-                try {
-                    InputStreamReader reader = new InputStreamReader(new BOMInputStream(file.getInputStream()), StandardCharsets.UTF_8);
-                    JSONObject json = (JSONObject) parser.parse(reader);
-                    reader.close();
-                    Map<String, String> mapping = new HashMap<>();
-                    for (Object obj : json.keySet()) {
-                        try {
-                            String key = (String) obj;
-                            mapping.put(key, (String) json.get(key));
-                        } catch (Exception ignored) {
+            return (!manager.isFlattenLegacy() && name.endsWith(".json")) || (manager.isFlattenLegacy() && name.endsWith(".lang"));
+        }).collect(Collectors.toList());
+        if (lazyLoading) {
+            return () -> {
+                this.languageMeta.putAll(finalLanguageMeta);
+                for (ResourcePackFile file : files) {
+                    String name = file.getName();
+                    String locale = name.substring(0, name.lastIndexOf("."));
+                    LocaleFiles localeFiles = this.localeFiles.computeIfAbsent(locale, k -> new LocaleFiles());
+                    synchronized (localeFiles) {
+                        localeFiles.files.add(file);
+                        if (localeFiles.loaded) {
+                            translations.removeLocale(locale);
+                            localeFiles.loaded = false;
                         }
                     }
-                    translations.put(file.getName().substring(0, file.getName().lastIndexOf(".")), mapping);
-                } catch (Exception e) {
-                    new ResourceLoadingException("Unable to load language " + file.getAbsolutePath(), e).printStackTrace();
                 }
-            } else if (manager.isFlattenLegacy() && name.endsWith(".lang")) {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(new BOMInputStream(file.getInputStream()), StandardCharsets.UTF_8))) {
-                    Map<String, String> mapping = new HashMap<>();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        int separator = line.indexOf("=");
-                        if (separator >= 0) {
-                            mapping.put(line.substring(0, separator), line.substring(separator + 1));
+            };
+        }
+        List<Map<String, String>> mappings = files.parallelStream().map(file -> {
+            try {
+                return manager.readParsedResource(file, "lang", LanguageManager::readLanguageFile);
+            } catch (Exception e) {
+                new ResourceLoadingException("Unable to load language " + file.getAbsolutePath(), e).printStackTrace();
+                return null;
+            }
+        }).collect(Collectors.toList());
+        Map<String, Map<String, String>> translations = new HashMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            Map<String, String> mapping = mappings.get(i);
+            if (mapping != null) {
+                String name = files.get(i).getName();
+                translations.put(name.substring(0, name.lastIndexOf(".")), mapping);
+            }
+        }
+        return () -> {
+            this.languageMeta.putAll(finalLanguageMeta);
+            for (Entry<String, Map<String, String>> entry : translations.entrySet()) {
+                this.translations.putAll(entry.getKey(), entry.getValue());
+            }
+        };
+    }
+
+    private static Map<String, String> readLanguageFile(ResourcePackFile file) throws Exception {
+        Map<String, String> mapping = new HashMap<>();
+        if (file.getName().endsWith(".json")) {
+            try (JsonReader reader = JsonUtils.createReader(file.getInputStream())) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String key = reader.nextName();
+                    switch (reader.peek()) {
+                        case STRING -> mapping.put(key, reader.nextString());
+                        case NULL -> {
+                            reader.nextNull();
+                            mapping.put(key, null);
                         }
+                        default -> reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+        } else {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new BOMInputStream(file.getInputStream()), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int separator = line.indexOf("=");
+                    if (separator >= 0) {
+                        mapping.put(line.substring(0, separator), line.substring(separator + 1));
                     }
-                    translations.put(file.getName().substring(0, file.getName().lastIndexOf(".")), mapping);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(mapping);
+    }
+
+    public boolean loadLocale(String language) {
+        LocaleFiles files = localeFiles.get(language);
+        if (files == null) {
+            return false;
+        }
+        files.lastAccess = System.currentTimeMillis();
+        if (files.loaded) {
+            return false;
+        }
+        synchronized (files) {
+            if (files.loaded) {
+                return false;
+            }
+            Map<String, String> mapping = new HashMap<>();
+            for (ResourcePackFile file : files.files) {
+                try {
+                    mapping.putAll(manager.readParsedResource(file, "lang", LanguageManager::readLanguageFile));
                 } catch (Exception e) {
                     new ResourceLoadingException("Unable to load language " + file.getAbsolutePath(), e).printStackTrace();
                 }
             }
+            translations.putAll(language, mapping);
+            files.loaded = true;
         }
-        for (Entry<String, Map<String, String>> entry : translations.entrySet()) {
-            String key = entry.getKey();
-            Map<String, String> mapping = this.translations.get(key);
-            if (mapping == null) {
-                this.translations.put(key, entry.getValue());
-            } else {
-                mapping.putAll(entry.getValue());
+        LocaleLoadEvent event = new LocaleLoadEvent(this, language, translations.asMap(language));
+        localeLoadListeners.forEach(each -> each.accept(event));
+        return true;
+    }
+
+    public CompletableFuture<Void> preloadLocale(String language) {
+        pinnedLocales.add(language);
+        return CompletableFuture.runAsync(() -> loadLocale(language), manager.getLoaderPool());
+    }
+
+    public void unpinLocale(String language) {
+        pinnedLocales.remove(language);
+    }
+
+    public boolean isLocaleLoaded(String language) {
+        LocaleFiles files = localeFiles.get(language);
+        return files == null ? translations.hasLocale(language) : files.loaded;
+    }
+
+    public int evictUnusedLocales(long maxIdleMillis) {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (Entry<String, LocaleFiles> entry : localeFiles.entrySet()) {
+            LocaleFiles files = entry.getValue();
+            if (!files.loaded || pinnedLocales.contains(entry.getKey())) {
+                continue;
+            }
+            synchronized (files) {
+                if (files.loaded && now - files.lastAccess > maxIdleMillis) {
+                    translations.removeLocale(entry.getKey());
+                    files.loaded = false;
+                    evicted++;
+                }
             }
         }
+        return evicted;
     }
 
     @Override
     protected void filterResources(Pattern namespace, Pattern path) {
-        Iterator<String> itr = translations.keySet().iterator();
-        while (itr.hasNext()) {
-            String namespacedKey = itr.next();
-            String assetNamespace = namespacedKey.substring(0, namespacedKey.indexOf(":"));
-            String assetKey = namespacedKey.substring(namespacedKey.indexOf(":") + 1);
-            if (!assetKey.contains(".")) {
-                assetKey = assetKey + (manager.isFlattenLegacy() ? ".lang" : ".json");
+        for (String namespacedKey : new ArrayList<>(translations.getLocales())) {
+            if (isFiltered(namespacedKey, namespace, path)) {
+                translations.removeLocale(namespacedKey);
             }
-            if (namespace.matcher(assetNamespace).matches() && path.matcher(assetKey).matches()) {
-                itr.remove();
+        }
+        for (String namespacedKey : new ArrayList<>(localeFiles.keySet())) {
+            if (isFiltered(namespacedKey, namespace, path)) {
+                localeFiles.remove(namespacedKey);
+                translations.removeLocale(namespacedKey);
             }
         }
     }
 
+    private boolean isFiltered(String namespacedKey, Pattern namespace, Pattern path) {
+        String assetNamespace = namespacedKey.substring(0, namespacedKey.indexOf(":"));
+        String assetKey = namespacedKey.substring(namespacedKey.indexOf(":") + 1);
+        if (!assetKey.contains(".")) {
+            assetKey = assetKey + (manager.isFlattenLegacy() ? ".lang" : ".json");
+        }
+        return namespace.matcher(assetNamespace).matches() && path.matcher(assetKey).matches();
+    }
+
     public void registerReloadListener(Consumer<LanguageReloadEvent> listener) {
         reloadListeners.add(listener);
     }
@@ -151,23 +313,34 @@ public class LanguageManager extends AbstractManager implements ILanguageManager
         reloadListeners.removeIf(each -> each.equals(listener));
     }
 
+    public void registerLocaleLoadListener(Consumer<LocaleLoadEvent> listener) {
+        localeLoadListeners.add(listener);
+    }
+
+    public void unregisterLocaleLoadListener(Consumer<LocaleLoadEvent> listener) {
+        localeLoadListeners.removeIf(each -> each.equals(listener));
+    }
+
     public void clearTranslateFunction() {
         this.translateFunction = defaultTranslateFunction(this);
         reload();
     }
 
     public TranslateFunction getTranslateFunction() {
-        return translateFunction;
+        return lazyTranslateFunction;
     }
 
     public void setTranslateFunction(TranslateFunction translateFunction) {
+        if (translateFunction == lazyTranslateFunction) {
+            throw new IllegalArgumentException("Cannot set the translate function of a LanguageManager to itself");
+        }
         this.translateFunction = translateFunction;
         reload();
     }
 
     @Override
     public String applyTranslations(String str, String language) {
-        return translateFunction.apply(str, language);
+        return lazyTranslateFunction.apply(str, language);
     }
 
     @Override
@@ -194,16 +367,66 @@ public class LanguageManager extends AbstractManager implements ILanguageManager
         return languageMeta.get(language);
     }
 
-    @Override
-    protected void reload() {
+    public Map<String, Map<String, String>> getTranslations() {
         Map<String, Map<String, String>> outerMap = new HashMap<>();
-        for (Entry<String, Map<String, String>> entry : translations.entrySet()) {
-            outerMap.put(entry.getKey(), Collections.unmodifiableMap(entry.getValue()));
+        for (String locale : translations.getLocales()) {
+            outerMap.put(locale, getLocaleView(locale));
+        }
+        for (String locale : localeFiles.keySet()) {
+            outerMap.put(locale, getLocaleView(locale));
         }
-        LanguageReloadEvent event = new LanguageReloadEvent(this, Collections.unmodifiableMap(outerMap));
+        return Collections.unmodifiableMap(outerMap);
+    }
+
+    private Map<String, String> getLocaleView(String locale) {
+        return new AbstractMap<String, String>() {
+            private Map<String, String> delegate() {
+                loadLocale(locale);
+                return translations.asMap(locale);
+            }
+
+            @Override
+            public String get(Object key) {
+                return delegate().get(key);
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return delegate().containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return delegate().size();
+            }
+
+            @Override
+            public Set<Entry<String, String>> entrySet() {
+                return delegate().entrySet();
+            }
+        };
+    }
+
+    @Override
+    protected void reload() {
+        LanguageReloadEvent event = new LanguageReloadEvent(this, getTranslations());
         reloadListeners.forEach(each -> each.accept(event));
     }
 
+    private static class LocaleFiles {
+
+        private final List<ResourcePackFile> files;
+        private volatile boolean loaded;
+        private volatile long lastAccess;
+
+        private LocaleFiles() {
+            this.files = new CopyOnWriteArrayList<>();
+            this.loaded = false;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+    }
+
     public static class LanguageReloadEvent {
 
         private final LanguageManager languageManager;
@@ -224,4 +447,30 @@ public class LanguageManager extends AbstractManager implements ILanguageManager
 
     }
 
+    public static class LocaleLoadEvent {
+
+        private final LanguageManager languageManager;
+        private final String locale;
+        private final Map<String, String> translations;
+
+        public LocaleLoadEvent(LanguageManager languageManager, String locale, Map<String, String> translations) {
+            this.languageManager = languageManager;
+            this.locale = locale;
+            this.translations = translations;
+        }
+
+        public LanguageManager getLanguageManager() {
+            return languageManager;
+        }
+
+        public String getLocale() {
+            return locale;
+        }
+
+        public Map<String, String> getTranslations() {
+            return translations;
+        }
+
+    }
+
 }
@@ -0,0 +1,392 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.loohp.interactivechatdiscordsrvaddon.resources.languages;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TranslationStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private String[] keys;
+    private int[] keyReferences;
+    private int[] table;
+    private int keyCount;
+    private int liveKeyCount;
+    private final Map<String, LocaleTranslations> locales;
+    private final ReentrantReadWriteLock lock;
+
+    public TranslationStore() {
+        this.keys = new String[INITIAL_CAPACITY];
+        this.keyReferences = new int[INITIAL_CAPACITY];
+        this.table = new int[INITIAL_CAPACITY * 2];
+        this.keyCount = 0;
+        this.liveKeyCount = 0;
+        this.locales = new ConcurrentHashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    public int getKeyId(String key) {
+        lock.readLock().lock();
+        try {
+            return findKeyId(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int findKeyId(String key) {
+        return findKeyId(keys, table, key);
+    }
+
+    private static int findKeyId(String[] keys, int[] table, String key) {
+        int mask = table.length - 1;
+        int index = mix(key.hashCode()) & mask;
+        int slot;
+        while ((slot = table[index]) != 0) {
+            if (keys[slot - 1].equals(key)) {
+                return slot - 1;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int addKey(String key) {
+        int mask = table.length - 1;
+        int index = mix(key.hashCode()) & mask;
+        int slot;
+        while ((slot = table[index]) != 0) {
+            if (keys[slot - 1].equals(key)) {
+                return slot - 1;
+            }
+            index = (index + 1) & mask;
+        }
+        int id = keyCount++;
+        if (id >= keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+            keyReferences = Arrays.copyOf(keyReferences, keys.length);
+        }
+        keys[id] = key;
+        table[index] = id + 1;
+        if (keyCount * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        int[] table = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < keyCount; id++) {
+            int index = mix(keys[id].hashCode()) & mask;
+            while (table[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            table[index] = id + 1;
+        }
+        this.table = table;
+    }
+
+    private void reference(int id) {
+        if (keyReferences[id]++ == 0) {
+            liveKeyCount++;
+        }
+    }
+
+    private void dereference(int id) {
+        if (--keyReferences[id] == 0) {
+            liveKeyCount--;
+        }
+    }
+
+    private void compactIfSparse() {
+        if (keyCount > INITIAL_CAPACITY && liveKeyCount * 2 < keyCount) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] remap = new int[keyCount];
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < liveKeyCount) {
+            capacity *= 2;
+        }
+        String[] keys = new String[capacity];
+        int[] keyReferences = new int[capacity];
+        int newKeyCount = 0;
+        for (int id = 0; id < keyCount; id++) {
+            if (this.keyReferences[id] > 0) {
+                remap[id] = newKeyCount;
+                keys[newKeyCount] = this.keys[id];
+                keyReferences[newKeyCount] = this.keyReferences[id];
+                newKeyCount++;
+            } else {
+                remap[id] = -1;
+            }
+        }
+        for (LocaleTranslations translations : locales.values()) {
+            String[] values = new String[capacity];
+            for (int id = 0; id < translations.values.length && id < keyCount; id++) {
+                String value = translations.values[id];
+                if (value != null) {
+                    values[remap[id]] = value;
+                }
+            }
+            translations.values = values;
+        }
+        this.keys = keys;
+        this.keyReferences = keyReferences;
+        this.keyCount = newKeyCount;
+        rehash(capacity * 2);
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public String get(String locale, String key) {
+        LocaleTranslations translations = locales.get(locale);
+        return translations == null ? null : translations.get(key);
+    }
+
+    public LocaleTranslations getLocale(String locale) {
+        return locales.get(locale);
+    }
+
+    public boolean hasLocale(String locale) {
+        return locales.containsKey(locale);
+    }
+
+    public Set<String> getLocales() {
+        return Collections.unmodifiableSet(locales.keySet());
+    }
+
+    public void put(String locale, String key, String value) {
+        lock.writeLock().lock();
+        try {
+            locales.computeIfAbsent(locale, k -> new LocaleTranslations()).put(key, value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(String locale, Map<String, String> translations) {
+        lock.writeLock().lock();
+        try {
+            LocaleTranslations localeTranslations = locales.computeIfAbsent(locale, k -> new LocaleTranslations());
+            for (Map.Entry<String, String> entry : translations.entrySet()) {
+                localeTranslations.put(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeLocale(String locale) {
+        lock.writeLock().lock();
+        try {
+            LocaleTranslations translations = locales.remove(locale);
+            if (translations == null) {
+                return;
+            }
+            String[] values = translations.values;
+            for (int id = 0; id < values.length; id++) {
+                if (values[id] != null) {
+                    dereference(id);
+                }
+            }
+            translations.detach();
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (LocaleTranslations translations : locales.values()) {
+                translations.detach();
+            }
+            locales.clear();
+            keys = new String[INITIAL_CAPACITY];
+            keyReferences = new int[INITIAL_CAPACITY];
+            table = new int[INITIAL_CAPACITY * 2];
+            keyCount = 0;
+            liveKeyCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, String> asMap(String locale) {
+        LocaleTranslations translations = locales.get(locale);
+        return translations == null ? Collections.emptyMap() : translations.asMap();
+    }
+
+    public class LocaleTranslations {
+
+        private String[] values;
+        private int size;
+        private String[] detachedKeys;
+        private int[] detachedTable;
+        private volatile boolean detached;
+
+        private LocaleTranslations() {
+            this.values = new String[keys.length];
+            this.size = 0;
+            this.detached = false;
+        }
+
+        private void detach() {
+            detachedKeys = Arrays.copyOf(keys, keyCount);
+            detachedTable = table.clone();
+            detached = true;
+        }
+
+        public String get(String key) {
+            if (detached) {
+                int id = findKeyId(detachedKeys, detachedTable, key);
+                return id < 0 || id >= values.length ? null : values[id];
+            }
+            lock.readLock().lock();
+            try {
+                int id = findKeyId(key);
+                String[] values = this.values;
+                return id < 0 || id >= values.length ? null : values[id];
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void put(String key, String value) {
+            if (value == null) {
+                int id = findKeyId(key);
+                if (id >= 0 && id < values.length && values[id] != null) {
+                    values[id] = null;
+                    size--;
+                    dereference(id);
+                }
+                return;
+            }
+            int id = addKey(key);
+            if (id >= values.length) {
+                values = Arrays.copyOf(values, Math.max(keys.length, id + 1));
+            }
+            if (values[id] == null) {
+                size++;
+                reference(id);
+            }
+            values[id] = value;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Map<String, String> asMap() {
+            return new AbstractMap<>() {
+                @Override
+                public String get(Object key) {
+                    return key instanceof String ? LocaleTranslations.this.get((String) key) : null;
+                }
+
+                @Override
+                public boolean containsKey(Object key) {
+                    return get(key) != null;
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public Set<Entry<String, String>> entrySet() {
+                    return new AbstractSet<>() {
+                        @Override
+                        public Iterator<Entry<String, String>> iterator() {
+                            String[] keys;
+                            String[] values;
+                            if (detached) {
+                                keys = detachedKeys;
+                                values = LocaleTranslations.this.values;
+                            } else {
+                                lock.readLock().lock();
+                                try {
+                                    keys = TranslationStore.this.keys;
+                                    values = LocaleTranslations.this.values;
+                                } finally {
+                                    lock.readLock().unlock();
+                                }
+                            }
+                            return new Iterator<>() {
+                                private int id = advance(0);
+
+                                private int advance(int from) {
+                                    while (from < values.length && values[from] == null) {
+                                        from++;
+                                    }
+                                    return from;
+                                }
+
+                                @Override
+                                public boolean hasNext() {
+                                    return id < values.length;
+                                }
+
+                                @Override
+                                public Entry<String, String> next() {
+                                    if (!hasNext()) {
+                                        throw new NoSuchElementException();
+                                    }
+                                    Entry<String, String> entry = new SimpleImmutableEntry<>(keys[id], values[id]);
+                                    id = advance(id + 1);
+                                    return entry;
+                                }
+                            };
+                        }
+
+                        @Override
+                        public int size() {
+                            return size;
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+}
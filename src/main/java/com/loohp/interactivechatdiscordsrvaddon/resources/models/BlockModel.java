@@ -21,14 +21,18 @@
 package com.loohp.interactivechatdiscordsrvaddon.resources.models;
 
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
 import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelDisplay.ModelDisplayPosition;
 import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelElement.ModelElementRotation;
 import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelFace.ModelFaceSide;
 import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelOverride.ModelOverrideType;
+import com.loohp.interactivechatdiscordsrvaddon.utils.JsonUtils;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -158,6 +162,219 @@ public class BlockModel {
         return new BlockModel(manager, resourceLocation, parent, ambientocclusion, guiLight, display, texture, elements, overrides);
     }
 
+    public static BlockModel fromJson(IModelManager manager, String resourceLocation, JsonReader reader) throws IOException {
+        String parent = null;
+        boolean ambientocclusion = true;
+        ModelGUILight guiLight = null;
+        Map<ModelDisplayPosition, ModelDisplay> display = new EnumMap<>(ModelDisplayPosition.class);
+        Map<String, String> texture = new HashMap<>();
+        List<ModelElement> elements = new ArrayList<>();
+        List<ModelOverride> overrides = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "parent" -> parent = reader.nextString();
+                case "ambientocclusion" -> ambientocclusion = reader.nextBoolean();
+                case "gui_light" -> guiLight = ModelGUILight.fromKey(reader.nextString());
+                case "display" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        ModelDisplayPosition displayPos = ModelDisplayPosition.fromKey(reader.nextName());
+                        display.put(displayPos, readDisplay(displayPos, reader));
+                    }
+                    reader.endObject();
+                }
+                case "textures" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String textureKey = reader.nextName();
+                        texture.put(textureKey, reader.peek() == JsonToken.STRING ? reader.nextString() : String.valueOf(JsonUtils.readValue(reader)));
+                    }
+                    reader.endObject();
+                }
+                case "elements" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        elements.add(readElement(reader));
+                    }
+                    reader.endArray();
+                }
+                case "overrides" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        overrides.add(readOverride(reader));
+                    }
+                    reader.endArray();
+                    Collections.reverse(overrides);
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new BlockModel(manager, resourceLocation, parent, ambientocclusion, guiLight, display, texture, elements, overrides);
+    }
+
+    private static ModelDisplay readDisplay(ModelDisplayPosition displayPos, JsonReader reader) throws IOException {
+        Coordinates3D rotation = new Coordinates3D(0, 0, 0);
+        Coordinates3D translation = new Coordinates3D(0, 0, 0);
+        Coordinates3D scale = new Coordinates3D(1, 1, 1);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "rotation" -> rotation = readCoordinates(reader, rotation);
+                case "translation" -> translation = readCoordinates(reader, translation);
+                case "scale" -> scale = readCoordinates(reader, scale);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new ModelDisplay(displayPos, rotation, translation, scale);
+    }
+
+    private static ModelElement readElement(JsonReader reader) throws IOException {
+        String name = null;
+        Coordinates3D from = null;
+        Coordinates3D to = null;
+        ModelElementRotation rotation = null;
+        boolean shade = true;
+        Map<ModelFaceSide, ModelFace> face = new EnumMap<>(ModelFaceSide.class);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (key) {
+                case "name" -> name = reader.nextString();
+                case "from" -> from = readCoordinates(reader, null);
+                case "to" -> to = readCoordinates(reader, null);
+                case "rotation" -> rotation = readElementRotation(reader);
+                case "shade" -> shade = reader.nextBoolean();
+                case "faces" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        ModelFaceSide side = ModelFaceSide.fromKey(reader.nextName());
+                        face.put(side, readFace(side, reader));
+                    }
+                    reader.endObject();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (from == null || to == null) {
+            throw new IOException("Model element is missing \"from\" or \"to\" at " + reader.getPath());
+        }
+        return new ModelElement(name, from, to, rotation, shade, face);
+    }
+
+    private static ModelElementRotation readElementRotation(JsonReader reader) throws IOException {
+        Coordinates3D origin = new Coordinates3D(0, 0, 0);
+        ModelAxis axis = null;
+        double angle = 0;
+        boolean rescale = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "origin" -> origin = readCoordinates(reader, origin);
+                case "axis" -> axis = ModelAxis.valueOf(reader.nextString().toUpperCase());
+                case "angle" -> angle = reader.nextDouble();
+                case "rescale" -> rescale = reader.nextBoolean();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (axis == null) {
+            throw new IOException("Model element rotation is missing \"axis\" at " + reader.getPath());
+        }
+        return new ModelElementRotation(origin, axis, angle, rescale);
+    }
+
+    private static ModelFace readFace(ModelFaceSide side, JsonReader reader) throws IOException {
+        TextureUV uv = null;
+        String faceTexture = null;
+        ModelFaceSide cullface = side;
+        int faceRotation = 0;
+        int faceTintindex = -1;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (key) {
+                case "uv" -> {
+                    reader.beginArray();
+                    uv = new TextureUV(reader.nextDouble(), reader.nextDouble(), reader.nextDouble(), reader.nextDouble());
+                    while (reader.hasNext()) {
+                        reader.skipValue();
+                    }
+                    reader.endArray();
+                }
+                case "texture" -> faceTexture = reader.nextString();
+                case "cullface" -> {
+                    if (reader.peek() == JsonToken.STRING) {
+                        cullface = ModelFaceSide.fromKey(reader.nextString());
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                case "rotation" -> faceRotation = (int) reader.nextDouble();
+                case "tintindex" -> faceTintindex = (int) reader.nextDouble();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new ModelFace(side, uv, faceTexture, cullface, faceRotation, faceTintindex);
+    }
+
+    private static ModelOverride readOverride(JsonReader reader) throws IOException {
+        Map<ModelOverrideType, Float> predicates = new EnumMap<>(ModelOverrideType.class);
+        String model = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "predicate" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        ModelOverrideType type = ModelOverrideType.fromKey(reader.nextName());
+                        if (type == null) {
+                            reader.skipValue();
+                        } else {
+                            predicates.put(type, (float) reader.nextDouble());
+                        }
+                    }
+                    reader.endObject();
+                }
+                case "model" -> model = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new ModelOverride(predicates, model);
+    }
+
+    private static Coordinates3D readCoordinates(JsonReader reader, Coordinates3D defaultValue) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return defaultValue;
+        }
+        reader.beginArray();
+        Coordinates3D coordinates = new Coordinates3D(reader.nextDouble(), reader.nextDouble(), reader.nextDouble());
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+        return coordinates;
+    }
+
     private final IModelManager manager;
     private final String resourceLocation;
 
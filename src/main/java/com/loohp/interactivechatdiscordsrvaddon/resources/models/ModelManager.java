@@ -20,86 +20,113 @@
 
 package com.loohp.interactivechatdiscordsrvaddon.resources.models;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
 import com.google.gson.stream.JsonReader;
-import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
 import com.loohp.interactivechatdiscordsrvaddon.resources.AbstractManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceLoadingException;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourcePackFile;
 import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelOverride.ModelOverrideType;
+import com.loohp.interactivechatdiscordsrvaddon.utils.JsonUtils;
 import com.loohp.interactivechatdiscordsrvaddon.utils.TriFunction;
-import org.apache.commons.io.input.BOMInputStream;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 public class ModelManager extends AbstractManager implements IModelManager {
 
     public static final TriFunction<IModelManager, String, JSONObject, BlockModel> DEFAULT_MODEL_PARSING_FUNCTION = BlockModel::fromJson;
 
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
-
     public static final String CACHE_KEY = "ModelManager";
     public static final String BLOCK_ENTITY_BASE = "builtin/entity";
     public static final String ITEM_BASE = "builtin/generated";
     public static final String ITEM_BASE_LAYER = "layer";
 
     public static JSONObject specialReadProvider(ResourcePackFile file) throws IOException, ParseException {
-        try (InputStreamReader reader = new InputStreamReader(new BOMInputStream(file.getInputStream()), StandardCharsets.UTF_8)) {
-            return (JSONObject) new JSONParser().parse(reader);
-        } catch (ParseException e) {
-            try (InputStreamReader reader = new InputStreamReader(new BOMInputStream(file.getInputStream()), StandardCharsets.UTF_8)) {
-                JsonReader jsonReader = new JsonReader(reader);
-                jsonReader.setLenient(false);
-                JsonObject jsonObject = GSON.getAdapter(JsonObject.class).read(jsonReader);
-                String json = GSON.toJson(jsonObject);
-                return (JSONObject) new JSONParser().parse(json);
-            }
-        }
+        return JsonUtils.readJSONObject(file.getInputStream());
     }
 
     private final Map<String, BlockModel> models;
+    private final Map<String, ResourcePackFile> modelFiles;
+    private final ResolvedModelCache resolvedModelCache;
     private TriFunction<IModelManager, String, JSONObject, ? extends BlockModel> modelParsingFunction;
+    private volatile boolean lazyLoading;
 
     public ModelManager(ResourceManager manager) {
         super(manager);
-        this.models = new HashMap<>();
+        this.models = new ConcurrentHashMap<>();
+        this.modelFiles = new ConcurrentHashMap<>();
+        this.resolvedModelCache = new ResolvedModelCache(this::getRawBlockModel);
         this.modelParsingFunction = DEFAULT_MODEL_PARSING_FUNCTION;
+        this.lazyLoading = false;
     }
 
     @Override
     protected void loadDirectory(String namespace, ResourcePackFile root, Object... meta) {
+        prepareDirectory(namespace, root, meta).run();
+    }
+
+    @Override
+    protected Runnable prepareDirectory(String namespace, ResourcePackFile root, Object... meta) {
         if (!root.exists() || !root.isDirectory()) {
             throw new IllegalArgumentException(root.getAbsolutePath() + " is not a directory.");
         }
-        Map<String, BlockModel> models = new HashMap<>();
         Collection<ResourcePackFile> files = root.listFilesRecursively(new String[]{"json"});
-        for (ResourcePackFile file : files) {
+        if (lazyLoading) {
+            return () -> {
+                resolvedModelCache.clear();
+                for (ResourcePackFile file : files) {
+                    String key = namespace + ":" + file.getRelativePathFrom(root);
+                    key = key.substring(0, key.lastIndexOf("."));
+                    modelFiles.put(key, file);
+                    this.models.remove(key);
+                }
+            };
+        }
+        Map<String, BlockModel> models = new ConcurrentHashMap<>();
+        files.parallelStream().forEach(file -> {
             try {
                 String key = namespace + ":" + file.getRelativePathFrom(root);
                 key = key.substring(0, key.lastIndexOf("."));
-                JSONObject rootJson = specialReadProvider(file);
-                BlockModel model = modelParsingFunction.apply(this, key, rootJson);
-                models.put(key, model);
+                BlockModel model = parseModel(key, file);
+                if (model != null) {
+                    models.put(key, model);
+                }
             } catch (Exception e) {
                 new ResourceLoadingException("Unable to load block model " + file.getAbsolutePath(), e).printStackTrace();
             }
+        });
+        return () -> {
+            resolvedModelCache.clear();
+            for (String key : models.keySet()) {
+                modelFiles.remove(key);
+            }
+            this.models.putAll(models);
+        };
+    }
+
+    private BlockModel parseModel(String resourceLocation, ResourcePackFile file) throws Exception {
+        TriFunction<IModelManager, String, JSONObject, ? extends BlockModel> modelParsingFunction = this.modelParsingFunction;
+        //the layer cache needs the JSONObject for its snapshot, without one (the standalone tools) the model is streamed
+        if (modelParsingFunction == DEFAULT_MODEL_PARSING_FUNCTION && !manager.hasParsedResourceLayer(file)) {
+            try (JsonReader reader = JsonUtils.createReader(file.getInputStream())) {
+                return BlockModel.fromJson(this, resourceLocation, reader);
+            }
         }
-        this.models.putAll(models);
+        return modelParsingFunction.apply(this, resourceLocation, manager.readParsedResource(file, "models", ModelManager::specialReadProvider));
     }
 
     @Override
     protected void filterResources(Pattern namespace, Pattern path) {
-        Iterator<String> itr = models.keySet().iterator();
+        filterResources(models.keySet().iterator(), namespace, path);
+        filterResources(modelFiles.keySet().iterator(), namespace, path);
+        resolvedModelCache.clear();
+    }
+
+    private void filterResources(Iterator<String> itr, Pattern namespace, Pattern path) {
         while (itr.hasNext()) {
             String namespacedKey = itr.next();
             String assetNamespace = namespacedKey.substring(0, namespacedKey.indexOf(":"));
@@ -115,7 +142,7 @@ public class ModelManager extends AbstractManager implements IModelManager {
 
     @Override
     protected void reload() {
-
+        resolvedModelCache.clear();
     }
 
     public TriFunction<IModelManager, String, JSONObject, ? extends BlockModel> getModelParsingFunction() {
@@ -126,49 +153,54 @@ public class ModelManager extends AbstractManager implements IModelManager {
         this.modelParsingFunction = modelParsingFunction;
     }
 
-    @Override
-    public BlockModel getRawBlockModel(String resourceLocation) {
-        return models.get(resourceLocation);
+    public boolean isLazyLoading() {
+        return lazyLoading;
     }
 
-    public Map<String, BlockModel> getRawBlockModelMapping() {
-        return Collections.unmodifiableMap(models);
+    public void setLazyLoading(boolean lazyLoading) {
+        this.lazyLoading = lazyLoading;
     }
 
     @Override
-    public BlockModel resolveBlockModel(String resourceLocation, boolean is1_8, Map<ModelOverrideType, Float> predicates) {
+    public BlockModel getRawBlockModel(String resourceLocation) {
         BlockModel model = models.get(resourceLocation);
-        if (model == null) {
+        if (model != null) {
+            return model;
+        }
+        ResourcePackFile file = modelFiles.get(resourceLocation);
+        if (file == null) {
             return null;
         }
-        for (ModelOverride override : model.getOverrides()) {
-            if (override.test(predicates)) {
-                return resolveBlockModel(override.getModel(), is1_8, null);
-            }
+        try {
+            model = parseModel(resourceLocation, file);
+        } catch (Exception e) {
+            new ResourceLoadingException("Unable to load block model " + file.getAbsolutePath(), e).printStackTrace();
         }
-        while (model.getParent() != null) {
-            if (model.getRawParent().equals(ITEM_BASE)) {
-                break;
-            }
-            if (model.getRawParent().equals(BLOCK_ENTITY_BASE)) {
-                BlockModel builtinModel = resolveBlockModel(ResourceRegistry.BUILTIN_ENTITY_MODEL_LOCATION + resourceLocation.substring(resourceLocation.lastIndexOf("/") + 1), is1_8, predicates);
-                if (builtinModel != null) {
-                    return builtinModel;
-                }
-                break;
-            }
-            BlockModel parent = models.get(model.getParent());
-            if (parent == null) {
-                break;
-            }
-            for (ModelOverride override : model.getOverrides()) {
-                if (override.test(predicates)) {
-                    return resolveBlockModel(override.getModel(), is1_8, null);
-                }
-            }
-            model = model.resolve(parent, is1_8);
+        if (model == null) {
+            modelFiles.remove(resourceLocation, file);
+            return null;
         }
-        return model.resolve(is1_8);
+        BlockModel existing = models.putIfAbsent(resourceLocation, model);
+        modelFiles.remove(resourceLocation, file);
+        return existing == null ? model : existing;
+    }
+
+    public Set<String> getModelKeys() {
+        Set<String> keys = new HashSet<>(models.keySet());
+        keys.addAll(modelFiles.keySet());
+        return Collections.unmodifiableSet(keys);
+    }
+
+    public Map<String, BlockModel> getRawBlockModelMapping() {
+        for (String key : new ArrayList<>(modelFiles.keySet())) {
+            getRawBlockModel(key);
+        }
+        return Collections.unmodifiableMap(models);
+    }
+
+    @Override
+    public BlockModel resolveBlockModel(String resourceLocation, boolean is1_8, Map<ModelOverrideType, Float> predicates) {
+        return resolvedModelCache.resolve(resourceLocation, is1_8, predicates, location -> resolveBlockModel(location, is1_8, null), location -> resolveBlockModel(location, is1_8, predicates));
     }
 
 }
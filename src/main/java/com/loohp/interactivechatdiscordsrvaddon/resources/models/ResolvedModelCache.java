@@ -0,0 +1,172 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources.models;
+
+import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
+import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelOverride.ModelOverrideType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public class ResolvedModelCache {
+
+    private final Function<String, BlockModel> rootModelProvider;
+    private final Function<String, BlockModel> parentModelProvider;
+    private final Map<String, ResolvedModel> resolvedModels;
+    private final Map<String, ResolvedModel> resolvedLegacyModels;
+
+    public ResolvedModelCache(Function<String, BlockModel> rootModelProvider, Function<String, BlockModel> parentModelProvider) {
+        this.rootModelProvider = rootModelProvider;
+        this.parentModelProvider = parentModelProvider;
+        this.resolvedModels = new ConcurrentHashMap<>();
+        this.resolvedLegacyModels = new ConcurrentHashMap<>();
+    }
+
+    public ResolvedModelCache(Function<String, BlockModel> modelProvider) {
+        this(modelProvider, modelProvider);
+    }
+
+    public ResolvedModel getResolvedModel(String resourceLocation, boolean is1_8) {
+        Map<String, ResolvedModel> resolvedModels = is1_8 ? this.resolvedLegacyModels : this.resolvedModels;
+        ResolvedModel resolvedModel = resolvedModels.get(resourceLocation);
+        if (resolvedModel == null) {
+            resolvedModel = buildResolvedModel(resourceLocation, is1_8);
+            ResolvedModel existing = resolvedModels.putIfAbsent(resourceLocation, resolvedModel);
+            if (existing != null) {
+                resolvedModel = existing;
+            }
+        }
+        return resolvedModel;
+    }
+
+    public BlockModel resolve(String resourceLocation, boolean is1_8, Map<ModelOverrideType, Float> predicates, Function<String, BlockModel> overrideResolver, Function<String, BlockModel> builtinResolver) {
+        return getResolvedModel(resourceLocation, is1_8).resolve(override -> override.test(predicates), overrideResolver, builtinResolver);
+    }
+
+    public void clear() {
+        resolvedModels.clear();
+        resolvedLegacyModels.clear();
+    }
+
+    private ResolvedModel buildResolvedModel(String resourceLocation, boolean is1_8) {
+        BlockModel model = rootModelProvider.apply(resourceLocation);
+        if (model == null) {
+            return ResolvedModel.MISSING;
+        }
+        List<ModelOverride> overrides = new ArrayList<>();
+        Set<ModelOverride> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        addOverrides(overrides, seen, model);
+        String builtinLocation = null;
+        while (model.getParent() != null) {
+            if (model.getRawParent().equals(ModelManager.ITEM_BASE)) {
+                break;
+            }
+            if (model.getRawParent().equals(ModelManager.BLOCK_ENTITY_BASE)) {
+                builtinLocation = ResourceRegistry.BUILTIN_ENTITY_MODEL_LOCATION + resourceLocation.substring(resourceLocation.lastIndexOf("/") + 1);
+                break;
+            }
+            BlockModel parent = parentModelProvider.apply(model.getParent());
+            if (parent == null) {
+                break;
+            }
+            addOverrides(overrides, seen, model);
+            model = model.resolve(parent, is1_8);
+        }
+        return new ResolvedModel(overrides, builtinLocation, model, is1_8);
+    }
+
+    private static void addOverrides(List<ModelOverride> overrides, Set<ModelOverride> seen, BlockModel model) {
+        for (ModelOverride override : model.getOverrides()) {
+            if (seen.add(override)) {
+                overrides.add(override);
+            }
+        }
+    }
+
+    public static class ResolvedModel {
+
+        public static final ResolvedModel MISSING = new ResolvedModel(Collections.emptyList(), null, null, false);
+
+        private final List<ModelOverride> overrides;
+        private final String builtinLocation;
+        private final BlockModel mergedModel;
+        private final boolean is1_8;
+        private volatile BlockModel defaultModel;
+
+        private ResolvedModel(List<ModelOverride> overrides, String builtinLocation, BlockModel mergedModel, boolean is1_8) {
+            this.overrides = Collections.unmodifiableList(overrides);
+            this.builtinLocation = builtinLocation;
+            this.mergedModel = mergedModel;
+            this.is1_8 = is1_8;
+            this.defaultModel = null;
+        }
+
+        public boolean exists() {
+            return mergedModel != null;
+        }
+
+        public List<ModelOverride> getOverrides() {
+            return overrides;
+        }
+
+        public String getBuiltinLocation() {
+            return builtinLocation;
+        }
+
+        public BlockModel getDefaultModel() {
+            if (mergedModel == null) {
+                return null;
+            }
+            BlockModel model = defaultModel;
+            if (model == null) {
+                defaultModel = model = mergedModel.resolve(is1_8);
+            }
+            return model;
+        }
+
+        public BlockModel resolve(Predicate<ModelOverride> overrideTest, Function<String, BlockModel> overrideResolver, Function<String, BlockModel> builtinResolver) {
+            if (mergedModel == null) {
+                return null;
+            }
+            for (ModelOverride override : overrides) {
+                if (overrideTest.test(override)) {
+                    return overrideResolver.apply(override.getModel());
+                }
+            }
+            if (builtinLocation != null) {
+                BlockModel builtinModel = builtinResolver.apply(builtinLocation);
+                if (builtinModel != null) {
+                    return builtinModel;
+                }
+            }
+            return getDefaultModel();
+        }
+
+    }
+
+}
@@ -28,9 +28,8 @@ import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourcePackFile;
 import com.loohp.interactivechatdiscordsrvaddon.resources.models.BlockModel;
 import com.loohp.interactivechatdiscordsrvaddon.resources.models.IModelManager;
-import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelManager;
-import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelOverride;
 import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelOverride.ModelOverrideType;
+import com.loohp.interactivechatdiscordsrvaddon.resources.models.ResolvedModelCache;
 import com.loohp.interactivechatdiscordsrvaddon.resources.mods.ModManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.textures.TextureResource;
 import com.loohp.interactivechatdiscordsrvaddon.utils.TriFunction;
@@ -56,12 +55,16 @@ public class ChimeManager extends ModManager implements IChimeManager {
     private final List<String> overrideLocations;
     private final Map<String, TextureResource> textures;
     private final Map<String, ChimeBlockModel> models;
+    private final ResolvedModelCache chimeResolvedModelCache;
+    private final ResolvedModelCache resolvedModelCache;
 
     public ChimeManager(ResourceManager manager) {
         super(manager, MOD_NAME, ASSETS_FOLDERS);
         this.overrideLocations = new ArrayList<>();
         this.textures = new HashMap<>();
         this.models = new HashMap<>();
+        this.chimeResolvedModelCache = new ResolvedModelCache(resourceLocation -> getRawBlockModel(resourceLocation, true), this::getRawBlockModel);
+        this.resolvedModelCache = new ResolvedModelCache(this::getRawBlockModel);
         manager.getModelManager().setModelParsingFunction(CHIME_MODEL_PARSING_FUNCTION);
         if (manager.hasResourceRegistry(CustomItemTextureRegistry.IDENTIFIER)) {
             manager.getResourceRegistry(CustomItemTextureRegistry.IDENTIFIER, CustomItemTextureRegistry.class).appendResolver(new ChimeItemTextureResolver(this));
@@ -74,6 +77,7 @@ public class ChimeManager extends ModManager implements IChimeManager {
             throw new IllegalArgumentException(root.getAbsolutePath() + " is not a directory.");
         }
         overrideLocations.add(root.getName() + "/");
+        clearResolvedModels();
         JSONParser parser = new JSONParser();
         Map<String, ChimeBlockModel> models = new HashMap<>();
         Map<String, TextureResource> textures = new HashMap<>();
@@ -85,15 +89,18 @@ public class ChimeManager extends ModManager implements IChimeManager {
                 String key = namespace + ":" + root.getName() + "/" + relativePath;
                 key = key.substring(0, key.lastIndexOf("."));
                 if (name.endsWith(".json")) {
-                    InputStreamReader reader = new InputStreamReader(new BOMInputStream(file.getInputStream()), StandardCharsets.UTF_8);
-                    JSONObject rootJson = (JSONObject) parser.parse(reader);
-                    reader.close();
-                    rootJson.remove("textures");
-                    String parent = namespace + ":" + relativePath;
-                    if (parent.contains(".")) {
-                        parent = parent.substring(0, parent.lastIndexOf("."));
-                    }
-                    rootJson.put("parent", parent);
+                    JSONObject rootJson = manager.readParsedResource(file, "chime", each -> {
+                        InputStreamReader reader = new InputStreamReader(new BOMInputStream(each.getInputStream()), StandardCharsets.UTF_8);
+                        JSONObject json = (JSONObject) parser.parse(reader);
+                        reader.close();
+                        json.remove("textures");
+                        String parent = namespace + ":" + relativePath;
+                        if (parent.contains(".")) {
+                            parent = parent.substring(0, parent.lastIndexOf("."));
+                        }
+                        json.put("parent", parent);
+                        return json;
+                    });
                     ChimeBlockModel model = CHIME_MODEL_PARSING_FUNCTION.apply(this, key, rootJson);
                     models.put(key, model);
                 } else if (name.endsWith(".png")) {
@@ -134,11 +141,17 @@ public class ChimeManager extends ModManager implements IChimeManager {
                 itr2.remove();
             }
         }
+        clearResolvedModels();
     }
 
     @Override
     protected void reload() {
+        clearResolvedModels();
+    }
 
+    private void clearResolvedModels() {
+        chimeResolvedModelCache.clear();
+        resolvedModelCache.clear();
     }
 
     public BlockModel getRawBlockModel(String resourceLocation, boolean checkOverride) {
@@ -160,88 +173,20 @@ public class ChimeManager extends ModManager implements IChimeManager {
     }
 
     public BlockModel resolveBlockModel(String resourceLocation, boolean is1_8, Map<ModelOverrideType, Float> predicates, Player player, World world, LivingEntity entity, ItemStack itemStack, UnaryOperator<String> translateFunction) {
-        BlockModel model = getRawBlockModel(resourceLocation, true);
-        if (model == null) {
-            return null;
-        }
-        for (ModelOverride override : model.getOverrides()) {
+        return chimeResolvedModelCache.getResolvedModel(resourceLocation, is1_8).resolve(override -> {
             if (override instanceof ChimeModelOverride) {
-                if (((ChimeModelOverride) override).test(predicates, player, world, entity, itemStack, translateFunction)) {
-                    return resolveBlockModel(override.getModel(), is1_8, null);
-                }
+                return ((ChimeModelOverride) override).test(predicates, player, world, entity, itemStack, translateFunction);
             } else {
-                if (override.test(predicates)) {
-                    return resolveBlockModel(override.getModel(), is1_8, null);
-                }
-            }
-        }
-        while (model.getParent() != null) {
-            if (model.getRawParent().equals(ModelManager.ITEM_BASE)) {
-                break;
-            }
-            if (model.getRawParent().equals(ModelManager.BLOCK_ENTITY_BASE)) {
-                BlockModel builtinModel = resolveBlockModel(ResourceRegistry.BUILTIN_ENTITY_MODEL_LOCATION + resourceLocation.substring(resourceLocation.lastIndexOf("/") + 1), is1_8, predicates);
-                if (builtinModel != null) {
-                    return builtinModel;
-                }
-                break;
-            }
-            BlockModel parent = getRawBlockModel(model.getParent());
-            if (parent == null) {
-                break;
-            }
-            for (ModelOverride override : model.getOverrides()) {
-                if (override instanceof ChimeModelOverride) {
-                    if (((ChimeModelOverride) override).test(predicates, player, world, entity, itemStack, translateFunction)) {
-                        return resolveBlockModel(override.getModel(), is1_8, null);
-                    }
-                } else {
-                    if (override.test(predicates)) {
-                        return resolveBlockModel(override.getModel(), is1_8, null);
-                    }
-                }
+                return override.test(predicates);
             }
-            model = model.resolve(parent, is1_8);
-        }
-        return model.resolve(is1_8);
+        }, location -> resolveBlockModel(location, is1_8, null), location -> resolveBlockModel(location, is1_8, predicates));
     }
 
     @SuppressWarnings("DeprecatedIsStillUsed")
     @Deprecated
     @Override
     public BlockModel resolveBlockModel(String resourceLocation, boolean is1_8, Map<ModelOverrideType, Float> predicates) {
-        BlockModel model = getRawBlockModel(resourceLocation);
-        if (model == null) {
-            return null;
-        }
-        for (ModelOverride override : model.getOverrides()) {
-            if (override.test(predicates)) {
-                return resolveBlockModel(override.getModel(), is1_8, null);
-            }
-        }
-        while (model.getParent() != null) {
-            if (model.getRawParent().equals(ModelManager.ITEM_BASE)) {
-                break;
-            }
-            if (model.getRawParent().equals(ModelManager.BLOCK_ENTITY_BASE)) {
-                BlockModel builtinModel = resolveBlockModel(ResourceRegistry.BUILTIN_ENTITY_MODEL_LOCATION + resourceLocation.substring(resourceLocation.lastIndexOf("/") + 1), is1_8, predicates);
-                if (builtinModel != null) {
-                    return builtinModel;
-                }
-                break;
-            }
-            BlockModel parent = getRawBlockModel(model.getParent());
-            if (parent == null) {
-                break;
-            }
-            for (ModelOverride override : model.getOverrides()) {
-                if (override.test(predicates)) {
-                    return resolveBlockModel(override.getModel(), is1_8, null);
-                }
-            }
-            model = model.resolve(parent, is1_8);
-        }
-        return model.resolve(is1_8);
+        return resolvedModelCache.resolve(resourceLocation, is1_8, predicates, location -> resolveBlockModel(location, is1_8, null), location -> resolveBlockModel(location, is1_8, predicates));
     }
 
     @Override
@@ -21,12 +21,10 @@
 package com.loohp.interactivechatdiscordsrvaddon.resources.mods.optifine;
 
 import com.loohp.interactivechatdiscordsrvaddon.graphics.ImageUtils;
-import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
 import com.loohp.interactivechatdiscordsrvaddon.resources.*;
 import com.loohp.interactivechatdiscordsrvaddon.resources.models.BlockModel;
-import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelManager;
-import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelOverride;
 import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelOverride.ModelOverrideType;
+import com.loohp.interactivechatdiscordsrvaddon.resources.models.ResolvedModelCache;
 import com.loohp.interactivechatdiscordsrvaddon.resources.mods.ModManager;
 import com.loohp.interactivechatdiscordsrvaddon.resources.mods.optifine.cit.*;
 import com.loohp.interactivechatdiscordsrvaddon.resources.mods.optifine.cit.CITGlobalProperties.EnchantmentVisibilityMethod;
@@ -70,12 +68,14 @@ public class OptifineManager extends ModManager implements IOptifineManager {
 
     private CITGlobalProperties citGlobalProperties;
     private final Map<String, ValuePairs<ResourcePackFile, CITProperties>> citOverrides;
+    private final ResolvedModelCache resolvedModelCache;
 
     public OptifineManager(ResourceManager manager) {
         super(manager, MOD_NAME, ASSETS_FOLDERS);
         this.assets = new HashMap<>();
         this.citGlobalProperties = null;
         this.citOverrides = new LinkedHashMap<>();
+        this.resolvedModelCache = new ResolvedModelCache(this::getRawBlockModel);
         if (manager.hasResourceRegistry(CustomItemTextureRegistry.IDENTIFIER)) {
             manager.getResourceRegistry(CustomItemTextureRegistry.IDENTIFIER, CustomItemTextureRegistry.class).appendResolver(new OptifineItemTextureResolver(this));
         }
@@ -83,6 +83,7 @@ public class OptifineManager extends ModManager implements IOptifineManager {
 
     @Override
     protected void loadDirectory(String namespace, ResourcePackFile root, Object... meta) {
+        resolvedModelCache.clear();
         JSONParser parser = new JSONParser();
         for (ResourcePackFile file : root.listFilesRecursively()) {
             try {
@@ -102,9 +103,11 @@ public class OptifineManager extends ModManager implements IOptifineManager {
                     }
                 } else {
                     if (extension.equalsIgnoreCase("json")) {
-                        InputStreamReader reader = new InputStreamReader(new BOMInputStream(file.getInputStream()), StandardCharsets.UTF_8);
-                        JSONObject rootJson = (JSONObject) parser.parse(reader);
-                        reader.close();
+                        JSONObject rootJson = manager.readParsedResource(file, "optifine", each -> {
+                            try (InputStreamReader reader = new InputStreamReader(new BOMInputStream(each.getInputStream()), StandardCharsets.UTF_8)) {
+                                return (JSONObject) parser.parse(reader);
+                            }
+                        });
                         assets.put(key, new ValuePairs<>(file, BlockModel.fromJson(this, key.substring(0, key.length() - (extension.length() + 1)), rootJson)));
                     } else if (extension.equalsIgnoreCase("png")) {
                         assets.put(key, new ValuePairs<>(file, new TextureResource(this, key, file, true, null)));
@@ -154,11 +157,12 @@ public class OptifineManager extends ModManager implements IOptifineManager {
                 itr2.remove();
             }
         }
+        resolvedModelCache.clear();
     }
 
     @Override
     protected void reload() {
-
+        resolvedModelCache.clear();
     }
 
     @Override
@@ -497,38 +501,7 @@ public class OptifineManager extends ModManager implements IOptifineManager {
 
     @Override
     public BlockModel resolveBlockModel(String resourceLocation, boolean is1_8, Map<ModelOverrideType, Float> predicates) {
-        BlockModel model = getRawBlockModel(resourceLocation);
-        if (model == null) {
-            return null;
-        }
-        for (ModelOverride override : model.getOverrides()) {
-            if (override.test(predicates)) {
-                return resolveBlockModel(override.getModel(), is1_8, null);
-            }
-        }
-        while (model.getParent() != null) {
-            if (model.getRawParent().equals(ModelManager.ITEM_BASE)) {
-                break;
-            }
-            if (model.getRawParent().equals(ModelManager.BLOCK_ENTITY_BASE)) {
-                BlockModel builtinModel = resolveBlockModel(ResourceRegistry.BUILTIN_ENTITY_MODEL_LOCATION + resourceLocation.substring(resourceLocation.lastIndexOf("/") + 1), is1_8, predicates);
-                if (builtinModel != null) {
-                    return builtinModel;
-                }
-                break;
-            }
-            BlockModel parent = getRawBlockModel(model.getParent());
-            if (parent == null) {
-                break;
-            }
-            for (ModelOverride override : model.getOverrides()) {
-                if (override.test(predicates)) {
-                    return resolveBlockModel(override.getModel(), is1_8, null);
-                }
-            }
-            model = model.resolve(parent, is1_8);
-        }
-        return model.resolve(is1_8);
+        return resolvedModelCache.resolve(resourceLocation, is1_8, predicates, location -> resolveBlockModel(location, is1_8, null), location -> resolveBlockModel(location, is1_8, predicates));
     }
 
 }
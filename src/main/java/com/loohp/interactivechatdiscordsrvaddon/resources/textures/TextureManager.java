@@ -20,20 +20,16 @@
 
 package com.loohp.interactivechatdiscordsrvaddon.resources.textures;
 
+import com.google.gson.stream.JsonReader;
 import com.loohp.interactivechatdiscordsrvaddon.registry.ResourceRegistry;
 import com.loohp.interactivechatdiscordsrvaddon.resources.*;
+import com.loohp.interactivechatdiscordsrvaddon.utils.JsonUtils;
 import com.loohp.interactivechatdiscordsrvaddon.utils.TintUtils;
-import org.apache.commons.io.input.BOMInputStream;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.*;
-import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -68,99 +64,66 @@ public class TextureManager extends AbstractManager implements ITextureManager {
 
     @Override
     protected void loadDirectory(String namespace, ResourcePackFile root, Object... meta) {
+        prepareDirectory(namespace, root, meta).run();
+    }
+
+    @Override
+    protected Runnable prepareDirectory(String namespace, ResourcePackFile root, Object... meta) {
         if (!root.exists() || !root.isDirectory()) {
             throw new IllegalArgumentException(root.getAbsolutePath() + " is not a directory.");
         }
-        TextureAtlases textureAtlases = null;
-        if (meta.length > 0 && meta[0] instanceof Map) {
-            textureAtlases = (TextureAtlases) meta[0];
+        TextureAtlases textureAtlases = meta.length > 0 && meta[0] instanceof TextureAtlases ? (TextureAtlases) meta[0] : null;
+        List<Map<String, TextureResource>> loaded = root.listFilesRecursively().parallelStream().map(file -> loadFile(namespace, root, file, textureAtlases)).collect(Collectors.toList());
+        Map<String, TextureResource> textures = new HashMap<>();
+        for (Map<String, TextureResource> each : loaded) {
+            textures.putAll(each);
         }
-        JSONParser parser = new JSONParser();
+        return () -> this.textures.putAll(textures);
+    }
+
+    private Map<String, TextureResource> loadFile(String namespace, ResourcePackFile root, ResourcePackFile file, TextureAtlases textureAtlases) {
         Map<String, TextureResource> textures = new HashMap<>();
-        Collection<ResourcePackFile> files = root.listFilesRecursively();
-        for (ResourcePackFile file : files) {
-            try {
-                String relativePath = file.getRelativePathFrom(root);
-                String key = namespace + ":" + relativePath;
-                String extension = "";
-                if (key.lastIndexOf(".") >= 0) {
-                    extension = key.substring(key.lastIndexOf(".") + 1);
-                    key = key.substring(0, key.lastIndexOf("."));
-                }
-                TextureAtlases.TextureAtlasSource atlasSource = null;
-                if (textureAtlases == null || (atlasSource = checkAtlasInclusion(textureAtlases, namespace, relativePath)) != null) {
-                    Map<String, UnaryOperator<BufferedImage>> imageTransformFunctions = null;
-                    if (atlasSource != null) {
-                        TextureAtlases.TextureAtlasSourceType<?> sourceType = atlasSource.getType();
-                        if (sourceType.equals(TextureAtlases.TextureAtlasSourceType.DIRECTORY)) {
-                            String fileName = file.getName();
-                            fileName = fileName.substring(0, fileName.lastIndexOf("."));
-                            key = ((TextureAtlases.TextureAtlasDirectorySource) atlasSource).getPrefix() + fileName;
-                        } else if (sourceType.equals(TextureAtlases.TextureAtlasSourceType.UNSTITCH)) {
-                            imageTransformFunctions = ((TextureAtlases.TextureAtlasUnstitchSource) atlasSource).getRegions().stream().collect(Collectors.toMap(TextureAtlases.TextureAtlasUnstitchSource.Region::getSpriteName, TextureAtlases.TextureAtlasUnstitchSource.Region::getImageTransformFunction, (a, b) -> b));
-                        }
-                    }
-                    if (extension.equalsIgnoreCase("png")) {
-                        if (imageTransformFunctions == null) {
-                            textures.put(key, new TextureResource(this, key, file, true, null));
-                        } else {
-                            for (Map.Entry<String, UnaryOperator<BufferedImage>> entry : imageTransformFunctions.entrySet()) {
-                                String spriteName = entry.getKey();
-                                textures.put(spriteName, new TextureResource(this, spriteName, file, true, entry.getValue()));
-                            }
+        try {
+            String relativePath = file.getRelativePathFrom(root);
+            String key = namespace + ":" + relativePath;
+            String extension = "";
+            if (key.lastIndexOf(".") >= 0) {
+                extension = key.substring(key.lastIndexOf(".") + 1);
+                key = key.substring(0, key.lastIndexOf("."));
+            }
+            if (extension.equalsIgnoreCase("png")) {
+                textures.put(key, new TextureResource(this, key, file, true, null));
+                TextureAtlases.TextureAtlasSource atlasSource = textureAtlases == null ? null : checkAtlasInclusion(textureAtlases, namespace, relativePath);
+                if (atlasSource != null) {
+                    TextureAtlases.TextureAtlasSourceType<?> sourceType = atlasSource.getType();
+                    if (sourceType.equals(TextureAtlases.TextureAtlasSourceType.DIRECTORY)) {
+                        String fileName = file.getName();
+                        fileName = fileName.substring(0, fileName.lastIndexOf("."));
+                        String spriteName = namespace + ":" + ((TextureAtlases.TextureAtlasDirectorySource) atlasSource).getPrefix() + fileName;
+                        textures.put(spriteName, new TextureResource(this, spriteName, file, true, null));
+                    } else if (sourceType.equals(TextureAtlases.TextureAtlasSourceType.UNSTITCH)) {
+                        for (TextureAtlases.TextureAtlasUnstitchSource.Region region : ((TextureAtlases.TextureAtlasUnstitchSource) atlasSource).getRegions()) {
+                            String spriteName = region.getSpriteName().contains(":") ? region.getSpriteName() : namespace + ":" + region.getSpriteName();
+                            textures.put(spriteName, new TextureResource(this, spriteName, file, true, region.getImageTransformFunction()));
                         }
-                    } else if (extension.equalsIgnoreCase("mcmeta")) {
-                        InputStreamReader reader = new InputStreamReader(new BOMInputStream(file.getInputStream()), StandardCharsets.UTF_8);
-                        JSONObject rootJson = (JSONObject) parser.parse(reader);
-                        reader.close();
-                        TextureMeta textureMeta = TextureMeta.fromJson(this, key + "." + extension, file, rootJson);
-                        textures.put(key + "." + extension, textureMeta);
-                    } else {
-                        textures.put(key + "." + extension, new TextureResource(this, key, file));
                     }
                 }
-            } catch (Exception e) {
-                new ResourceLoadingException("Unable to load block model " + file.getAbsolutePath(), e).printStackTrace();
+            } else if (extension.equalsIgnoreCase("mcmeta")) {
+                try (JsonReader reader = JsonUtils.createReader(file.getInputStream())) {
+                    TextureMeta textureMeta = TextureMeta.fromJson(this, key + "." + extension, file, reader);
+                    textures.put(key + "." + extension, textureMeta);
+                }
+            } else {
+                textures.put(key + "." + extension, new TextureResource(this, key, file));
             }
+        } catch (Exception e) {
+            new ResourceLoadingException("Unable to load block model " + file.getAbsolutePath(), e).printStackTrace();
         }
-        this.textures.putAll(textures);
+        return textures;
     }
 
     protected TextureAtlases.TextureAtlasSource checkAtlasInclusion(TextureAtlases textureAtlases, String namespace, String relativePath) {
-        for (List<TextureAtlases.TextureAtlasSource> textureAtlasesLists : textureAtlases.getTextureAtlases().values()) {
-            TextureAtlases.TextureAtlasSource result = null;
-            for (TextureAtlases.TextureAtlasSource source : textureAtlasesLists) {
-                if (!source.getType().equals(TextureAtlases.TextureAtlasSourceType.FILTER) && source.isIncluded(namespace, relativePath)) {
-                    result = source;
-                    break;
-                }
-            }
-            if (result == null) {
-                break;
-            }
-            for (TextureAtlases.TextureAtlasSource source : textureAtlasesLists) {
-                if (source.getType().equals(TextureAtlases.TextureAtlasSourceType.FILTER) && !source.isIncluded(namespace, relativePath)) {
-                    return null;
-                }
-            }
-            return result;
-        }
-        TextureAtlases.TextureAtlasSource result = null;
-        for (TextureAtlases.TextureAtlasSource source : TextureAtlases.DEFAULT_BLOCK_ATLASES) {
-            if (!source.getType().equals(TextureAtlases.TextureAtlasSourceType.FILTER) && source.isIncluded(namespace, relativePath)) {
-                result = source;
-                break;
-            }
-        }
-        if (result == null) {
-            return null;
-        }
-        for (TextureAtlases.TextureAtlasSource source : TextureAtlases.DEFAULT_BLOCK_ATLASES) {
-            if (source.getType().equals(TextureAtlases.TextureAtlasSourceType.FILTER) && !source.isIncluded(namespace, relativePath)) {
-                return null;
-            }
-        }
-        return null;
+        return textureAtlases.getMatcher().match(namespace, relativePath);
     }
 
     @Override
@@ -184,7 +147,7 @@ public class TextureManager extends AbstractManager implements ITextureManager {
         int[] grassColorArray;
         TextureResource grassColorMap = getTexture(ResourceRegistry.GRASS_COLORMAP_LOCATION, false);
         if (grassColorMap != null && grassColorMap.isTexture()) {
-            grassColorArray = grassColorMap.getTexture(256, 256).getRGB(0, 0, 256, 256, null, 0, 256);
+            grassColorArray = grassColorMap.getReadOnlyTexture(256, 256).getRGB(0, 0, 256, 256, null, 0, 256);
         } else {
             grassColorArray = new int[65536];
             Arrays.fill(grassColorArray, 0xFFFFFF);
@@ -193,7 +156,7 @@ public class TextureManager extends AbstractManager implements ITextureManager {
         int[] foliageColorArray;
         TextureResource foliageColorMap = getTexture(ResourceRegistry.FOLIAGE_COLORMAP_LOCATION, false);
         if (foliageColorMap != null && foliageColorMap.isTexture()) {
-            foliageColorArray = foliageColorMap.getTexture(256, 256).getRGB(0, 0, 256, 256, null, 0, 256);
+            foliageColorArray = foliageColorMap.getReadOnlyTexture(256, 256).getRGB(0, 0, 256, 256, null, 0, 256);
         } else {
             foliageColorArray = new int[65536];
             Arrays.fill(foliageColorArray, 0xFFFFFF);
@@ -21,11 +21,14 @@
 package com.loohp.interactivechatdiscordsrvaddon.resources.textures;
 
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourcePackFile;
 import com.loohp.interactivechatdiscordsrvaddon.resources.textures.TextureAnimation.TextureAnimationFrames;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -61,6 +64,100 @@ public class TextureMeta extends TextureResource {
         return new TextureMeta(manager, resourceKey, file, animation, properties);
     }
 
+    public static TextureMeta fromJson(ITextureManager manager, String resourceKey, ResourcePackFile file, JsonReader reader) throws IOException {
+        TextureAnimation animation = null;
+        TextureProperties properties = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "animation" -> animation = readAnimation(reader);
+                case "texture" -> properties = readProperties(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new TextureMeta(manager, resourceKey, file, animation, properties);
+    }
+
+    private static TextureAnimation readAnimation(JsonReader reader) throws IOException {
+        boolean interpolate = false;
+        int width = -1;
+        int height = -1;
+        int frametime = -1;
+        List<int[]> frameEntries = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "interpolate" -> interpolate = reader.nextBoolean();
+                case "width" -> width = (int) reader.nextDouble();
+                case "height" -> height = (int) reader.nextDouble();
+                case "frametime" -> frametime = (int) reader.nextDouble();
+                case "frames" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        JsonToken token = reader.peek();
+                        if (token == JsonToken.NUMBER) {
+                            frameEntries.add(new int[] {(int) reader.nextDouble()});
+                        } else if (token == JsonToken.BEGIN_OBJECT) {
+                            frameEntries.add(readFrame(reader));
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        List<TextureAnimationFrames> frames = new ArrayList<>(frameEntries.size());
+        for (int[] frame : frameEntries) {
+            frames.add(new TextureAnimationFrames(frame[0], frame.length > 1 ? frame[1] : frametime));
+        }
+        return new TextureAnimation(interpolate, width, height, frametime, frames);
+    }
+
+    private static int[] readFrame(JsonReader reader) throws IOException {
+        Integer index = null;
+        Integer time = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "index" -> index = (int) reader.nextDouble();
+                case "time" -> time = (int) reader.nextDouble();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (index == null || time == null) {
+            throw new IOException("Animation frame requires both index and time at " + reader.getPath());
+        }
+        return new int[] {index, time};
+    }
+
+    private static TextureProperties readProperties(JsonReader reader) throws IOException {
+        boolean blur = false;
+        boolean clamp = false;
+        List<Integer> mipmaps = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "blur" -> blur = reader.nextBoolean();
+                case "clamp" -> clamp = reader.nextBoolean();
+                case "mipmaps" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        mipmaps.add((int) reader.nextDouble());
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new TextureProperties(blur, clamp, mipmaps.stream().mapToInt(Integer::intValue).toArray());
+    }
+
     private final TextureAnimation animation;
     private final TextureProperties properties;
 
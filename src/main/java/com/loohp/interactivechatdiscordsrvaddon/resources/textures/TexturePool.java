@@ -0,0 +1,196 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.loohp.interactivechatdiscordsrvaddon.resources.textures;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+public class TexturePool {
+
+    public static final long DEFAULT_MAX_BYTES = 128L * 1024 * 1024;
+    public static final int MAX_SCALED_VARIANTS = 8;
+
+    private static long maxBytes = DEFAULT_MAX_BYTES;
+    private static volatile Cache<TextureResource, PooledTexture> pool = createPool(DEFAULT_MAX_BYTES);
+
+    private static Cache<TextureResource, PooledTexture> createPool(long maxBytes) {
+        return CacheBuilder.newBuilder()
+                .weakKeys()
+                .maximumWeight(Math.max(0, maxBytes))
+                .weigher((TextureResource resource, PooledTexture texture) -> (int) Math.min(Integer.MAX_VALUE, texture.getBytes()))
+                .recordStats()
+                .build();
+    }
+
+    public static long getBytes(BufferedImage image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    public static synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public static synchronized void setMaxBytes(long maxBytes) {
+        if (TexturePool.maxBytes == maxBytes) {
+            return;
+        }
+        TexturePool.maxBytes = maxBytes;
+        Cache<TextureResource, PooledTexture> previous = pool;
+        pool = createPool(maxBytes);
+        previous.invalidateAll();
+    }
+
+    static BufferedImage get(TextureResource resource, Callable<BufferedImage> loader) {
+        return getPooledTexture(pool, resource, loader).getImage();
+    }
+
+    static BufferedImage getScaled(TextureResource resource, Callable<BufferedImage> loader, int width, int height, Object interpolation, Function<BufferedImage, BufferedImage> scaler) {
+        Cache<TextureResource, PooledTexture> pool = TexturePool.pool;
+        PooledTexture texture = getPooledTexture(pool, resource, loader);
+        ScaledKey key = new ScaledKey(width, height, interpolation);
+        BufferedImage image = texture.getVariant(key);
+        if (image != null) {
+            return image;
+        }
+        image = scaler.apply(texture.getImage());
+        if (texture.addVariant(key, image)) {
+            pool.asMap().replace(resource, texture, texture);
+        }
+        return image;
+    }
+
+    private static PooledTexture getPooledTexture(Cache<TextureResource, PooledTexture> pool, TextureResource resource, Callable<BufferedImage> loader) {
+        try {
+            return pool.get(resource, () -> new PooledTexture(loader.call()));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    static BufferedImage getIfPresent(TextureResource resource) {
+        PooledTexture texture = pool.getIfPresent(resource);
+        return texture == null ? null : texture.getImage();
+    }
+
+    public static void invalidate(TextureResource resource) {
+        pool.invalidate(resource);
+    }
+
+    public static void clear() {
+        pool.invalidateAll();
+    }
+
+    public static long getEntryCount() {
+        return pool.size();
+    }
+
+    public static long getHitCount() {
+        return pool.stats().hitCount();
+    }
+
+    public static long getMissCount() {
+        return pool.stats().missCount();
+    }
+
+    public static double getHitRate() {
+        return pool.stats().hitRate();
+    }
+
+    public static long getEvictionCount() {
+        return pool.stats().evictionCount();
+    }
+
+    private static class PooledTexture {
+
+        private final BufferedImage image;
+        private final Map<ScaledKey, BufferedImage> variants;
+
+        private PooledTexture(BufferedImage image) {
+            this.image = image;
+            this.variants = new ConcurrentHashMap<>();
+        }
+
+        public BufferedImage getImage() {
+            return image;
+        }
+
+        public BufferedImage getVariant(ScaledKey key) {
+            return variants.get(key);
+        }
+
+        public boolean addVariant(ScaledKey key, BufferedImage variant) {
+            if (variants.size() >= MAX_SCALED_VARIANTS) {
+                return false;
+            }
+            return variants.putIfAbsent(key, variant) == null;
+        }
+
+        public long getBytes() {
+            long bytes = TexturePool.getBytes(image);
+            for (BufferedImage variant : variants.values()) {
+                bytes += TexturePool.getBytes(variant);
+            }
+            return bytes;
+        }
+    }
+
+    private static class ScaledKey {
+
+        private final int width;
+        private final int height;
+        private final Object interpolation;
+
+        private ScaledKey(int width, int height, Object interpolation) {
+            this.width = width;
+            this.height = height;
+            this.interpolation = interpolation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ScaledKey scaledKey = (ScaledKey) o;
+            return width == scaledKey.width && height == scaledKey.height && Objects.equals(interpolation, scaledKey.interpolation);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(width, height, interpolation);
+        }
+    }
+
+}
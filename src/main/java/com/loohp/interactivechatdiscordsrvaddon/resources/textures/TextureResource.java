@@ -21,9 +21,10 @@
 package com.loohp.interactivechatdiscordsrvaddon.resources.textures;
 
 import com.loohp.interactivechatdiscordsrvaddon.graphics.ImageUtils;
+import com.loohp.interactivechatdiscordsrvaddon.graphics.PngReader;
 import com.loohp.interactivechatdiscordsrvaddon.resources.ResourcePackFile;
 
-import javax.imageio.ImageIO;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
@@ -41,7 +42,7 @@ public class TextureResource {
     private final String resourceKey;
     private final ResourcePackFile file;
     private final boolean isTexture;
-    private Reference<BufferedImage> texture;
+    private final Reference<BufferedImage> texture;
     private final UnaryOperator<BufferedImage> imageTransformFunction;
 
     private Unsafe unsafe;
@@ -78,7 +79,7 @@ public class TextureResource {
         return resourceKey;
     }
 
-    private synchronized BufferedImage loadImage() {
+    private BufferedImage loadImage() {
         if (!isTexture) {
             throw new IllegalStateException(resourceKey + " is not a texture!");
         }
@@ -86,41 +87,61 @@ public class TextureResource {
         if (texture != null && (image = texture.get()) != null) {
             return image;
         }
+        return TexturePool.get(this, this::decodeImage);
+    }
+
+    private BufferedImage decodeImage() {
         try (InputStream inputStream = file.getInputStream()) {
-            image = ImageIO.read(inputStream);
+            BufferedImage image = PngReader.read(inputStream);
             if (image == null) {
                 throw new IOException("Image is null!");
             }
-            this.texture = new WeakReference<>(image);
+            if (imageTransformFunction != null) {
+                image = imageTransformFunction.apply(image);
+            }
             return image;
         } catch (IOException e) {
             throw new UncheckedIOException("Unable to load image " + resourceKey + " from " + file.getAbsolutePath(), e);
         }
     }
 
+    private BufferedImage getTransformedImage() {
+        BufferedImage image = loadImage();
+        if (texture != null && imageTransformFunction != null) {
+            image = imageTransformFunction.apply(image);
+        }
+        return image;
+    }
+
     public boolean isTexture() {
         return isTexture;
     }
 
     public BufferedImage getTexture(int w, int h) {
-        BufferedImage image = loadImage();
-        if (imageTransformFunction != null) {
-            image = imageTransformFunction.apply(image);
+        return ImageUtils.copyImage(getReadOnlyTexture(w, h));
+    }
+
+    public BufferedImage getReadOnlyTexture(int w, int h) {
+        return getReadOnlyTexture(w, h, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+    }
+
+    public BufferedImage getReadOnlyTexture(int w, int h, Object interpolation) {
+        BufferedImage image = getTransformedImage();
+        if (image.getWidth() == w && image.getHeight() == h) {
+            return image;
         }
-        if (image.getWidth() != w || image.getHeight() != h) {
-            image = ImageUtils.resizeImageAbs(image, w, h);
-        } else {
-            image = ImageUtils.copyImage(image);
+        if (texture != null) {
+            return ImageUtils.resizeImageAbs(image, w, h, interpolation);
         }
-        return image;
+        return TexturePool.getScaled(this, this::decodeImage, w, h, interpolation, source -> ImageUtils.resizeImageAbs(source, w, h, interpolation));
     }
 
     public BufferedImage getTexture() {
-        BufferedImage image = loadImage();
-        if (imageTransformFunction != null) {
-            image = imageTransformFunction.apply(image);
-        }
-        return ImageUtils.copyImage(image);
+        return ImageUtils.copyImage(getTransformedImage());
+    }
+
+    public BufferedImage getReadOnlyTexture() {
+        return getTransformedImage();
     }
 
     public boolean hasFile() {
@@ -167,7 +188,10 @@ public class TextureResource {
         return unsafe = new Unsafe() {
             @Override
             public Reference<BufferedImage> getTextureReference() {
-                return texture;
+                if (texture != null) {
+                    return texture;
+                }
+                return new WeakReference<>(isTexture ? TexturePool.getIfPresent(TextureResource.this) : null);
             }
         };
     }
@@ -32,6 +32,8 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Formatter;
 
 public class HashUtils {
@@ -72,6 +74,39 @@ public class HashUtils {
         return result;
     }
 
+    public static String createFileTreeFingerprint(File file) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        updateFileTreeFingerprint(digest, file, "");
+        Formatter formatter = new Formatter();
+        for (byte b : digest.digest()) {
+            formatter.format("%02x", b);
+        }
+        String result = formatter.toString();
+        formatter.close();
+        return result;
+    }
+
+    private static void updateFileTreeFingerprint(MessageDigest digest, File file, String relativePath) {
+        digest.update(relativePath.getBytes(StandardCharsets.UTF_8));
+        if (file.isDirectory()) {
+            File[] files = file.listFiles();
+            if (files == null) {
+                return;
+            }
+            Arrays.sort(files, Comparator.comparing(File::getName));
+            for (File child : files) {
+                updateFileTreeFingerprint(digest, child, relativePath + "/" + child.getName());
+            }
+        } else {
+            long length = file.length();
+            long lastModified = file.lastModified();
+            for (int i = 56; i >= 0; i -= 8) {
+                digest.update((byte) (length >>> i));
+                digest.update((byte) (lastModified >>> i));
+            }
+        }
+    }
+
     public static String createSha1(boolean rightHanded, int selectedSlot, int level, String title, Inventory inventory) throws Exception {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         BukkitObjectOutputStream dataOutput = new BukkitObjectOutputStream(outputStream);
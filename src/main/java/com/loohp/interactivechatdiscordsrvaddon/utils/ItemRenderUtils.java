@@ -101,45 +101,31 @@ public class ItemRenderUtils {
             world = livingEntity.getWorld();
         }
 
-        boolean requiresEnchantmentGlint = false;
         Material icMaterial = item.getType();
         String directLocation = null;
-        if (icMaterial == Material.DEBUG_STICK) {
-            requiresEnchantmentGlint = true;
-        } else if (icMaterial == Material.ENCHANTED_GOLDEN_APPLE) {
-            requiresEnchantmentGlint = true;
-        } else if (icMaterial == Material.WRITTEN_BOOK) {
-            requiresEnchantmentGlint = true;
-        } else if (icMaterial == Material.ENCHANTED_BOOK) {
-            requiresEnchantmentGlint = true;
-        } else if (item.getEnchantments().size() > 0) {
-            requiresEnchantmentGlint = true;
-        }
+        boolean requiresEnchantmentGlint = requiresEnchantmentGlint(icMaterial) || item.getEnchantments().size() > 0;
 
         List<ValuePairs<TextureResource, OpenGLBlending>> enchantmentGlintResource = manager.getResourceRegistry(CustomItemTextureRegistry.IDENTIFIER, CustomItemTextureRegistry.class).getEnchantmentGlintOverrideTextures(null, item, ImageGeneration::getDefaultEnchantmentTint, manager.getLanguageManager().getTranslateFunction().ofLanguage(language));
         UnaryOperator<BufferedImage> enchantmentGlintFunction = image -> ImageGeneration.getEnchantedImage(enchantmentGlintResource, image);
         Function<BufferedImage, RawEnchantmentGlintData> rawEnchantmentGlintFunction = image -> new RawEnchantmentGlintData(enchantmentGlintResource.stream().map(each -> ImageGeneration.getRawEnchantedImage(each.getFirst(), image)).collect(Collectors.toList()), enchantmentGlintResource.stream().map(ValuePairs::getSecond).collect(Collectors.toList()));
 
         TintIndexData tintIndexData = TintUtils.getTintData(icMaterial);
-        Map<ModelOverrideType, Float> predicates = new EnumMap<>(ModelOverrideType.class);
         Map<String, TextureResource> providedTextures = new HashMap<>();
         boolean rightHanded = true;
         if (player.isOnline()) {
             rightHanded = player.getPlayer().getMainHand() == MainHand.RIGHT;
         }
-        if (!rightHanded) {
-            predicates.put(ModelOverrideType.LEFTHANDED, 1F);
+        int damage = 0;
+        boolean unbreakable = false;
+        if (icMaterial.getMaxDurability() > 0) {
+            damage = ((Damageable) item.getItemMeta()).getDamage();
+            unbreakable = isUnbreakable(item);
         }
+        Map<ModelOverrideType, Float> predicates = createPredicates(icMaterial, rightHanded, damage, unbreakable);
         if (item.getItemMeta().hasCustomModelData()) {
             int customModelData = item.getItemMeta().getCustomModelData();
             predicates.put(ModelOverrideType.CUSTOM_MODEL_DATA, (float) customModelData);
         }
-        if (item.getType().getMaxDurability() > 0) {
-            int maxDur = item.getType().getMaxDurability();
-            int damage = ((Damageable) item.getItemMeta()).getDamage();
-            predicates.put(ModelOverrideType.DAMAGE, (float) damage / (float) maxDur);
-            predicates.put(ModelOverrideType.DAMAGED, isUnbreakable(item) || (damage <= 0) ? 0F : 1F);
-        }
 
         if (icMaterial == Material.CHEST || icMaterial == Material.TRAPPED_CHEST) {
             LocalDate time = LocalDate.now();
@@ -149,11 +135,11 @@ public class ItemRenderUtils {
                 directLocation = ResourceRegistry.BUILTIN_ENTITY_MODEL_LOCATION + "christmas_chest";
             }
         } else if (Tag.BANNERS.isTagged(icMaterial)) {
-            BannerAssetResult bannerAsset = BannerGraphics.generateBannerAssets(item);
+            BannerAssetResult bannerAsset = BannerGraphics.generateBannerAssets(manager, item);
             providedTextures.put(ResourceRegistry.BANNER_BASE_TEXTURE_PLACEHOLDER, new GeneratedTextureResource(manager, bannerAsset.getBase()));
             providedTextures.put(ResourceRegistry.BANNER_PATTERNS_TEXTURE_PLACEHOLDER, new GeneratedTextureResource(manager, bannerAsset.getPatterns()));
         } else if (icMaterial == Material.SHIELD) {
-            BannerAssetResult shieldAsset = BannerGraphics.generateShieldAssets(item);
+            BannerAssetResult shieldAsset = BannerGraphics.generateShieldAssets(manager, item);
             providedTextures.put(ResourceRegistry.SHIELD_BASE_TEXTURE_PLACEHOLDER, new GeneratedTextureResource(manager, shieldAsset.getBase()));
             providedTextures.put(ResourceRegistry.SHIELD_PATTERNS_TEXTURE_PLACEHOLDER, new GeneratedTextureResource(manager, shieldAsset.getPatterns()));
             predicates.put(ModelOverrideType.BLOCKING, 0F);
@@ -598,6 +584,23 @@ public class ItemRenderUtils {
         return new ItemStackProcessResult(requiresEnchantmentGlint, predicates, providedTextures, tintIndexData, modelKey, postResolveFunction, enchantmentGlintFunction, rawEnchantmentGlintFunction);
     }
 
+    public static boolean requiresEnchantmentGlint(Material material) {
+        return material == Material.DEBUG_STICK || material == Material.ENCHANTED_GOLDEN_APPLE || material == Material.WRITTEN_BOOK || material == Material.ENCHANTED_BOOK;
+    }
+
+    public static Map<ModelOverrideType, Float> createPredicates(Material material, boolean rightHanded, int damage, boolean unbreakable) {
+        Map<ModelOverrideType, Float> predicates = new EnumMap<>(ModelOverrideType.class);
+        if (!rightHanded) {
+            predicates.put(ModelOverrideType.LEFTHANDED, 1F);
+        }
+        if (material.getMaxDurability() > 0) {
+            int maxDur = material.getMaxDurability();
+            predicates.put(ModelOverrideType.DAMAGE, (float) damage / (float) maxDur);
+            predicates.put(ModelOverrideType.DAMAGED, unbreakable || (damage <= 0) ? 0F : 1F);
+        }
+        return predicates;
+    }
+
     public static boolean isUnbreakable(ItemStack item) {
         if (item.hasItemMeta()) {
             ItemMeta meta = item.getItemMeta();
@@ -0,0 +1,99 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.loohp.interactivechatdiscordsrvaddon.utils;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.apache.commons.io.input.BOMInputStream;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+public class JsonUtils {
+
+    public static JsonReader createReader(InputStream inputStream) {
+        JsonReader reader = new JsonReader(new InputStreamReader(new BOMInputStream(inputStream), StandardCharsets.UTF_8));
+        reader.setLenient(true);
+        return reader;
+    }
+
+    public static JSONObject readJSONObject(InputStream inputStream) throws IOException {
+        try (JsonReader reader = createReader(inputStream)) {
+            return readJSONObject(reader);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static JSONObject readJSONObject(JsonReader reader) throws IOException {
+        JSONObject json = new JSONObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            json.put(reader.nextName(), readValue(reader));
+        }
+        reader.endObject();
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static JSONArray readJSONArray(JsonReader reader) throws IOException {
+        JSONArray array = new JSONArray();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            array.add(readValue(reader));
+        }
+        reader.endArray();
+        return array;
+    }
+
+    public static Object readValue(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        return switch (token) {
+            case BEGIN_OBJECT -> readJSONObject(reader);
+            case BEGIN_ARRAY -> readJSONArray(reader);
+            case STRING -> reader.nextString();
+            case NUMBER -> parseNumber(reader.nextString());
+            case BOOLEAN -> reader.nextBoolean();
+            case NULL -> {
+                reader.nextNull();
+                yield null;
+            }
+            default -> throw new IOException("Unexpected " + token + " at " + reader.getPath());
+        };
+    }
+
+    public static Number parseNumber(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E') {
+                return Double.parseDouble(value);
+            }
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return Double.parseDouble(value);
+        }
+    }
+
+}
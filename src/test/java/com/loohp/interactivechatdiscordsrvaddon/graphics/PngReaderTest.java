@@ -0,0 +1,139 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.graphics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PngReaderTest {
+
+    @Test
+    public void testIntTypes() throws IOException {
+        assertDecoded(filled(new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB)), 6, 8);
+        assertDecoded(filled(new BufferedImage(32, 32, BufferedImage.TYPE_4BYTE_ABGR)), 6, 8);
+        assertDecoded(filled(new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB)), 2, 8);
+    }
+
+    @Test
+    public void testIndexed() throws IOException {
+        assertDecoded(filled(new BufferedImage(32, 32, BufferedImage.TYPE_BYTE_INDEXED)), 3, 8);
+    }
+
+    @Test
+    public void testLowBitGray() throws IOException {
+        for (int bits : new int[] {1, 2, 4}) {
+            int size = 1 << bits;
+            byte[] palette = new byte[size];
+            for (int i = 0; i < size; i++) {
+                palette[i] = (byte) (i * 255 / (size - 1));
+            }
+            BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_BYTE_BINARY, new IndexColorModel(bits, size, palette, palette, palette));
+            assertDecoded(filled(image), 0, bits);
+        }
+    }
+
+    @Test
+    public void testSixteenBit() throws IOException {
+        assertDecoded(component(ColorSpace.CS_sRGB, false, DataBuffer.TYPE_USHORT), 2, 16);
+        assertDecoded(component(ColorSpace.CS_sRGB, true, DataBuffer.TYPE_USHORT), 6, 16);
+    }
+
+    @Test
+    public void testGrayFallback() throws IOException {
+        assertFallback(filled(new BufferedImage(32, 32, BufferedImage.TYPE_BYTE_GRAY)));
+        assertFallback(filled(new BufferedImage(32, 32, BufferedImage.TYPE_USHORT_GRAY)));
+        assertFallback(component(ColorSpace.CS_GRAY, true, DataBuffer.TYPE_BYTE));
+        assertFallback(component(ColorSpace.CS_GRAY, true, DataBuffer.TYPE_USHORT));
+    }
+
+    private static void assertDecoded(BufferedImage source, int colorType, int bitDepth) throws IOException {
+        byte[] data = write(source);
+        assertEquals(bitDepth, data[24]);
+        assertEquals(colorType, data[25]);
+        BufferedImage decoded = PngReader.decode(data);
+        assertNotNull(decoded);
+        assertSamePixels(ImageIO.read(new ByteArrayInputStream(data)), decoded);
+    }
+
+    private static void assertFallback(BufferedImage source) throws IOException {
+        byte[] data = write(source);
+        assertNull(PngReader.decode(data));
+        assertSamePixels(ImageIO.read(new ByteArrayInputStream(data)), PngReader.read(new ByteArrayInputStream(data)));
+    }
+
+    private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    private static byte[] write(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage filled(BufferedImage image) {
+        Random random = new Random(1);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage component(int colorSpace, boolean alpha, int dataType) {
+        ComponentColorModel colorModel = new ComponentColorModel(ColorSpace.getInstance(colorSpace), alpha, false, alpha ? Transparency.TRANSLUCENT : Transparency.OPAQUE, dataType);
+        WritableRaster raster = colorModel.createCompatibleWritableRaster(32, 32);
+        int max = dataType == DataBuffer.TYPE_USHORT ? 65536 : 256;
+        Random random = new Random(2);
+        for (int y = 0; y < 32; y++) {
+            for (int x = 0; x < 32; x++) {
+                for (int b = 0; b < raster.getNumBands(); b++) {
+                    raster.setSample(x, y, b, random.nextInt(max));
+                }
+            }
+        }
+        return new BufferedImage(colorModel, raster, false, null);
+    }
+
+}
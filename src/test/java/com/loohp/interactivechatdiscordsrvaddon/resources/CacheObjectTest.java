@@ -0,0 +1,113 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheObjectTest {
+
+    private static BufferedImage createImage(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Random random = new Random(width * 31L + height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextBoolean() ? 0 : random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    private static byte[] write(BufferedImage image) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream dataOutputStream = new DataOutputStream(outputStream)) {
+            CacheObject.writeRaster(dataOutputStream, image);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static BufferedImage read(byte[] data) throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(data))) {
+            return CacheObject.readRaster(inputStream);
+        }
+    }
+
+    private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        int[] expectedPixels = expected.getRGB(0, 0, expected.getWidth(), expected.getHeight(), null, 0, expected.getWidth());
+        int[] actualPixels = actual.getRGB(0, 0, actual.getWidth(), actual.getHeight(), null, 0, actual.getWidth());
+        assertArrayEquals(expectedPixels, actualPixels);
+    }
+
+    @Test
+    public void testArgbRasterRoundTrip() throws IOException {
+        BufferedImage image = createImage(37, 19, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage result = read(write(image));
+        assertEquals(BufferedImage.TYPE_INT_ARGB, result.getType());
+        assertSamePixels(image, result);
+    }
+
+    @Test
+    public void testOtherImageTypesRoundTrip() throws IOException {
+        BufferedImage rgb = createImage(16, 16, BufferedImage.TYPE_INT_RGB);
+        assertSamePixels(rgb, read(write(rgb)));
+
+        BufferedImage abgr = createImage(16, 8, BufferedImage.TYPE_4BYTE_ABGR);
+        assertSamePixels(abgr, read(write(abgr)));
+
+        BufferedImage subimage = createImage(32, 32, BufferedImage.TYPE_INT_ARGB).getSubimage(5, 7, 11, 13);
+        assertSamePixels(subimage, read(write(subimage)));
+    }
+
+    @Test
+    public void testCompressesUniformImages() throws IOException {
+        BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB);
+        byte[] data = write(image);
+        assertTrue(data.length < 256 * 256 * 4);
+        assertSamePixels(image, read(data));
+    }
+
+    @Test
+    public void testSerializedImageRoundTrip() throws Exception {
+        BufferedImage image = createImage(24, 24, BufferedImage.TYPE_INT_ARGB);
+        CacheObject<?> cacheObject = CacheObject.deserialize(new CacheObject<>(1234L, image).serialize());
+        assertEquals(1234L, cacheObject.getTimeCreated());
+        assertSamePixels(image, (BufferedImage) cacheObject.getObject());
+    }
+
+    @Test
+    public void testRejectsUnknownRasterVersion() throws IOException {
+        byte[] data = write(createImage(4, 4, BufferedImage.TYPE_INT_ARGB));
+        data[0] = (byte) (CacheObject.RASTER_FORMAT_VERSION + 1);
+        assertThrows(IOException.class, () -> read(data));
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheStoreTest {
+
+    @TempDir
+    File folder;
+
+    @Test
+    public void testSameSettingsShareEntries() {
+        CacheStore first = CacheStore.acquire(folder, 60000, 0, true);
+        CacheStore second = CacheStore.acquire(folder, 60000, 0, true);
+        try {
+            assertSame(first, second);
+            first.putAll(Collections.singletonMap(bytes("key"), bytes("value")));
+            assertArrayEquals(bytes("value"), second.get(bytes("key")));
+        } finally {
+            CacheStore.release(first);
+            CacheStore.release(second);
+        }
+    }
+
+    @Test
+    public void testNonPersistentSettingResetsSharedStore() {
+        CacheStore first = CacheStore.acquire(folder, 60000, 0, true);
+        try {
+            first.putAll(Collections.singletonMap(bytes("key"), bytes("value")));
+            CacheStore second = CacheStore.acquire(folder, 60000, 0, false);
+            try {
+                assertNull(second.get(bytes("key")));
+                assertEquals(0, first.size());
+            } finally {
+                CacheStore.release(second);
+            }
+        } finally {
+            CacheStore.release(first);
+        }
+    }
+
+    @Test
+    public void testChangedTimeoutReopensPersistentStore() {
+        CacheStore store = CacheStore.acquire(folder, 60000, 0, true);
+        store.putAll(Collections.singletonMap(bytes("key"), bytes("value")));
+        CacheStore.release(store);
+
+        store = CacheStore.acquire(folder, 60000, 0, true);
+        try {
+            assertArrayEquals(bytes("value"), store.get(bytes("key")));
+        } finally {
+            CacheStore.release(store);
+        }
+
+        store = CacheStore.acquire(folder, 120000, 0, true);
+        try {
+            assertNull(store.get(bytes("key")));
+            store.putAll(Collections.singletonMap(bytes("key"), bytes("other")));
+            assertArrayEquals(bytes("other"), store.get(bytes("key")));
+        } finally {
+            CacheStore.release(store);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
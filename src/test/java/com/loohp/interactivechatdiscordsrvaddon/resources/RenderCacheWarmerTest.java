@@ -0,0 +1,88 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelDisplay.ModelDisplayPosition;
+import com.loohp.interactivechatdiscordsrvaddon.resources.models.ModelOverride.ModelOverrideType;
+import com.loohp.interactivechatdiscordsrvaddon.utils.TintUtils;
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RenderCacheWarmerTest {
+
+    private static final int SIZE = 32;
+
+    private static RenderCacheKey warmedKey(String modelKey) {
+        Material material = RenderCacheWarmer.getMaterial(modelKey);
+        return RenderCacheKey.forModelRender(SIZE, SIZE, ModelRenderer.INTERNAL_W, ModelRenderer.INTERNAL_H, false, modelKey, modelKey, ModelDisplayPosition.GUI, RenderCacheWarmer.getPredicates(material), Collections.emptyMap(), Collections.emptyMap(), TintUtils.getTintData(material), false);
+    }
+
+    private static RenderCacheKey liveKey(String modelKey, Material material, Map<ModelOverrideType, Float> predicates) {
+        return RenderCacheKey.forModelRender(SIZE, SIZE, ModelRenderer.INTERNAL_W, ModelRenderer.INTERNAL_H, false, modelKey, modelKey, ModelDisplayPosition.GUI, predicates, new HashMap<>(), new HashMap<>(), TintUtils.getTintData(material), false);
+    }
+
+    @Test
+    public void testDamageableItemMatchesLiveRender() {
+        String modelKey = "minecraft:item/diamond_sword";
+        Map<ModelOverrideType, Float> undamaged = new EnumMap<>(ModelOverrideType.class);
+        undamaged.put(ModelOverrideType.DAMAGE, 0F);
+        undamaged.put(ModelOverrideType.DAMAGED, 0F);
+
+        assertEquals(liveKey(modelKey, Material.DIAMOND_SWORD, undamaged), warmedKey(modelKey));
+        assertNotEquals(liveKey(modelKey, Material.DIAMOND_SWORD, Collections.emptyMap()), warmedKey(modelKey));
+    }
+
+    @Test
+    public void testLeftHandedRenderIsNotWarmed() {
+        String modelKey = "minecraft:item/diamond_sword";
+        Map<ModelOverrideType, Float> leftHanded = new EnumMap<>(ModelOverrideType.class);
+        leftHanded.put(ModelOverrideType.LEFTHANDED, 1F);
+        leftHanded.put(ModelOverrideType.DAMAGE, 0F);
+        leftHanded.put(ModelOverrideType.DAMAGED, 0F);
+
+        assertNotEquals(liveKey(modelKey, Material.DIAMOND_SWORD, leftHanded), warmedKey(modelKey));
+    }
+
+    @Test
+    public void testTintedItemMatchesLiveRender() {
+        String modelKey = "minecraft:item/grass_block";
+
+        assertEquals(liveKey(modelKey, Material.GRASS_BLOCK, new EnumMap<>(ModelOverrideType.class)), warmedKey(modelKey));
+    }
+
+    @Test
+    public void testOnlyReachableModelsAreWarmed() {
+        assertEquals(Material.DIAMOND_SWORD, RenderCacheWarmer.getMaterial("minecraft:item/diamond_sword"));
+        assertNull(RenderCacheWarmer.getMaterial("minecraft:item/bow_pulling_0"));
+        assertNull(RenderCacheWarmer.getMaterial("minecraft:item/enchanted_book"));
+        assertNull(RenderCacheWarmer.getMaterial("minecraft:block/stone"));
+    }
+
+}
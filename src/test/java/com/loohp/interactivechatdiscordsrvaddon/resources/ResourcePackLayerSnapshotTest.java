@@ -0,0 +1,138 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourcePackLayerSnapshotTest {
+
+    private static final String MODEL = "{\"parent\":\"block/cube_all\",\"ambientocclusion\":false,\"textures\":{\"all\":\"block/stone\"},\"elements\":[{\"from\":[0,0,0],\"to\":[16,16.5,16],\"shade\":true,\"name\":null}],\"überschrift\":\"\\u00e9\"}";
+
+    @TempDir
+    public File folder;
+
+    private static JSONObject parse(String json) throws IOException {
+        try {
+            return (JSONObject) new JSONParser().parse(json);
+        } catch (ParseException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Test
+    public void testLayersRoundTrip() throws IOException {
+        Map<String, String> translations = new HashMap<>();
+        translations.put("item.minecraft.stick", "Stick");
+        translations.put("item.minecraft.missing", null);
+
+        ResourcePackLayerCache cache = new ResourcePackLayerCache();
+        Map<String, Object> layer = cache.getLayer("Default:abc");
+        layer.put("models:assets/minecraft/models/block/stone.json", parse(MODEL));
+        layer.put("lang:assets/minecraft/lang/en_us.json", translations);
+        cache.getLayer("Pack.zip:def").put("font:assets/minecraft/font/default.json", parse("{\"providers\":[]}"));
+
+        File file = new File(folder, "resources.snapshot");
+        ResourcePackLayerSnapshot.write(cache, "1.19.3:4.2.5.3", file);
+
+        ResourcePackLayerCache restored = new ResourcePackLayerCache();
+        assertEquals(2, ResourcePackLayerSnapshot.read(restored, "1.19.3:4.2.5.3", file));
+        assertEquals(cache.getLayers(), restored.getLayers());
+
+        Map<String, Object> restoredLayer = restored.getLayers().get("Default:abc");
+        Object model = restoredLayer.get("models:assets/minecraft/models/block/stone.json");
+        assertInstanceOf(JSONObject.class, model);
+        Map<?, ?> element = (Map<?, ?>) ((List<?>) ((Map<?, ?>) model).get("elements")).get(0);
+        assertEquals(List.of(16L, 16.5, 16L), element.get("to"));
+        assertTrue(element.containsKey("name"));
+        assertEquals(translations, restoredLayer.get("lang:assets/minecraft/lang/en_us.json"));
+    }
+
+    @Test
+    public void testUnsupportedValuesAreSkipped() throws IOException {
+        ResourcePackLayerCache cache = new ResourcePackLayerCache();
+        Map<String, Object> layer = cache.getLayer("Default:abc");
+        layer.put("models:a.json", parse("{\"a\":1}"));
+        layer.put("custom:b.bin", new Object());
+        layer.put("custom:c.bin", 3);
+
+        File file = new File(folder, "resources.snapshot");
+        ResourcePackLayerSnapshot.write(cache, "context", file);
+
+        ResourcePackLayerCache restored = new ResourcePackLayerCache();
+        ResourcePackLayerSnapshot.read(restored, "context", file);
+        assertEquals(Map.of("models:a.json", parse("{\"a\":1}")), restored.getLayers().get("Default:abc"));
+    }
+
+    @Test
+    public void testContextMismatchRestoresNothing() throws IOException {
+        ResourcePackLayerCache cache = new ResourcePackLayerCache();
+        cache.getLayer("Default:abc").put("models:a.json", parse("{\"a\":1}"));
+        File file = new File(folder, "resources.snapshot");
+        ResourcePackLayerSnapshot.write(cache, "1.19.3:4.2.5.3", file);
+
+        ResourcePackLayerCache restored = new ResourcePackLayerCache();
+        assertEquals(0, ResourcePackLayerSnapshot.read(restored, "1.19.4:4.2.5.3", file));
+        assertEquals(0, restored.getLayerCount());
+    }
+
+    @Test
+    public void testCorruptedSnapshotIsRejected() throws IOException {
+        ResourcePackLayerCache cache = new ResourcePackLayerCache();
+        cache.getLayer("Default:abc").put("models:a.json", parse(MODEL));
+        File file = new File(folder, "resources.snapshot");
+        ResourcePackLayerSnapshot.write(cache, "context", file);
+
+        byte[] data = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(data, data.length / 2));
+        assertThrows(IOException.class, () -> ResourcePackLayerSnapshot.read(new ResourcePackLayerCache(), "context", file));
+
+        Files.write(file.toPath(), new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> ResourcePackLayerSnapshot.read(new ResourcePackLayerCache(), "context", file));
+    }
+
+    @Test
+    public void testModificationsAfterSnapshotStayUnsaved() {
+        ResourcePackLayerCache cache = new ResourcePackLayerCache();
+        assertFalse(cache.isModified());
+        cache.markModified();
+        long modificationCount = cache.getModificationCount();
+        cache.markModified();
+        cache.markSaved(modificationCount);
+        assertTrue(cache.isModified());
+        cache.markSaved(cache.getModificationCount());
+        assertFalse(cache.isModified());
+    }
+
+}
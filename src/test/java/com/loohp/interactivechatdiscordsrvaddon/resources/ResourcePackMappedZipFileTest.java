@@ -0,0 +1,166 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourcePackMappedZipFileTest {
+
+    private static final byte[] STONE = "{\"parent\":\"block/cube_all\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LANG = "{\"item.minecraft.stick\":\"Stick\"}".repeat(64).getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    public File folder;
+
+    private File createZip() throws IOException {
+        File file = new File(folder, "pack.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file))) {
+            zip.setComment("resource pack comment");
+            zip.putNextEntry(new ZipEntry("pack.mcmeta"));
+            zip.write("{}".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("assets/"));
+            zip.closeEntry();
+            ZipEntry stored = new ZipEntry("assets/minecraft/models/block/stone.json");
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(STONE.length);
+            CRC32 crc = new CRC32();
+            crc.update(STONE);
+            stored.setCrc(crc.getValue());
+            stored.setExtra(new byte[] {(byte) 0xCA, (byte) 0xFE, 2, 0, 1, 2});
+            zip.putNextEntry(stored);
+            zip.write(STONE);
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("assets/minecraft/lang/en_us.json"));
+            zip.write(LANG);
+            zip.closeEntry();
+        }
+        return file;
+    }
+
+    private static byte[] readAll(ResourcePackFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testReadsStoredAndDeflatedEntries() throws IOException {
+        ResourcePackMappedZipFile root = new ResourcePackMappedZipFile(createZip());
+        try {
+            ResourcePackFile stone = root.getChild("assets/minecraft/models/block/stone.json");
+            assertTrue(stone.exists());
+            assertFalse(stone.isDirectory());
+            assertArrayEquals(STONE, readAll(stone));
+
+            ResourcePackFile lang = root.getChild("assets").getChild("minecraft").getChild("lang").getChild("en_us.json");
+            assertArrayEquals(LANG, readAll(lang));
+            assertEquals("en_us.json", lang.getName());
+            assertEquals("assets/minecraft/lang", lang.getParent());
+        } finally {
+            root.close();
+        }
+    }
+
+    @Test
+    public void testDirectoryListing() throws IOException {
+        ResourcePackMappedZipFile root = new ResourcePackMappedZipFile(createZip());
+        try {
+            ResourcePackFile assets = root.getChild("assets");
+            assertTrue(assets.isDirectory());
+            assertFalse(root.getChild("assets/minecraft/sounds").exists());
+
+            List<String> names = root.listFilesAndFolders().stream().map(ResourcePackFile::getName).sorted().collect(Collectors.toList());
+            assertEquals(List.of("assets", "pack.mcmeta"), names);
+
+            List<String> files = assets.listFilesRecursively().stream().map(ResourcePackFile::getPath).collect(Collectors.toList());
+            assertEquals(List.of("assets/minecraft/models/block/stone.json", "assets/minecraft/lang/en_us.json"), files);
+
+            List<String> jsons = root.listFilesRecursively(new String[] {"mcmeta"}).stream().map(ResourcePackFile::getPath).collect(Collectors.toList());
+            assertEquals(List.of("pack.mcmeta"), jsons);
+        } finally {
+            root.close();
+        }
+    }
+
+    @Test
+    public void testRejectsFilesWithoutCentralDirectory() throws IOException {
+        File file = new File(folder, "broken.zip");
+        Files.write(file.toPath(), new byte[64]);
+        assertThrows(ZipException.class, () -> new ResourcePackMappedZipFile(file));
+    }
+
+    @Test
+    public void testRejectsNameLengthPastEnd() throws IOException {
+        File file = createZip();
+        corruptCentralDirectory(file, 28, (short) 0xFFFF);
+        assertThrows(ZipException.class, () -> new ResourcePackMappedZipFile(file));
+    }
+
+    @Test
+    public void testRejectsLocalHeaderOffsetPastEnd() throws IOException {
+        File file = createZip();
+        corruptCentralDirectory(file, 42, 0x7FFFFFF0);
+        assertThrows(ZipException.class, () -> new ResourcePackMappedZipFile(file));
+    }
+
+    private static void corruptCentralDirectory(File file, int fieldOffset, Number value) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        int endOfCentralDirectory = buffer.limit() - 22;
+        while (buffer.getInt(endOfCentralDirectory) != 0x06054b50) {
+            endOfCentralDirectory--;
+        }
+        int field = buffer.getInt(endOfCentralDirectory + 16) + fieldOffset;
+        if (value instanceof Short) {
+            buffer.putShort(field, value.shortValue());
+        } else {
+            buffer.putInt(field, value.intValue());
+        }
+        Files.write(file.toPath(), buffer.array());
+    }
+
+    @Test
+    public void testReadAfterCloseFails() throws IOException {
+        ResourcePackMappedZipFile root = new ResourcePackMappedZipFile(createZip());
+        ResourcePackFile stone = root.getChild("assets/minecraft/models/block/stone.json");
+        root.close();
+        assertThrows(IOException.class, stone::getInputStream);
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import com.loohp.interactivechatdiscordsrvaddon.resources.TextureAtlases.TextureAtlasDirectorySource;
+import com.loohp.interactivechatdiscordsrvaddon.resources.TextureAtlases.TextureAtlasFilterSource;
+import com.loohp.interactivechatdiscordsrvaddon.resources.TextureAtlases.TextureAtlasSingleSource;
+import com.loohp.interactivechatdiscordsrvaddon.resources.TextureAtlases.TextureAtlasSource;
+import com.loohp.interactivechatdiscordsrvaddon.resources.TextureAtlases.TextureAtlasUnstitchSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TextureAtlasMatcherTest {
+
+    @Test
+    public void testFirstSourceWins() {
+        TextureAtlasSource shortPrefix = new TextureAtlasDirectorySource("gui", "gui/");
+        TextureAtlasSource longPrefix = new TextureAtlasDirectorySource("gui/sprites", "sprites/");
+        TextureAtlasSource single = new TextureAtlasSingleSource("gui/sprites/icon", "icon");
+        TextureAtlasSource unstitch = new TextureAtlasUnstitchSource("painting/sheet", 1, 1, Collections.emptyList());
+        TextureAtlasSource other = new TextureAtlasDirectorySource("painting", "painting/");
+        TextureAtlasMatcher matcher = TextureAtlasMatcher.compile(List.of(List.of(shortPrefix, longPrefix, single, unstitch, other)));
+
+        assertSame(shortPrefix, matcher.match("minecraft", "gui/sprites/icon"));
+        assertSame(shortPrefix, matcher.match("minecraft", "gui/title"));
+        assertSame(unstitch, matcher.match("minecraft", "painting/sheet"));
+        assertSame(other, matcher.match("minecraft", "painting/kebab"));
+    }
+
+    @Test
+    public void testSingleBeforeDirectory() {
+        TextureAtlasSource single = new TextureAtlasSingleSource("entity/chest/normal", "chest");
+        TextureAtlasSource directory = new TextureAtlasDirectorySource("entity", "entity/");
+        TextureAtlasMatcher matcher = TextureAtlasMatcher.compile(List.of(List.of(single, directory)));
+
+        assertSame(single, matcher.match("minecraft", "entity/chest/normal"));
+        assertSame(directory, matcher.match("minecraft", "entity/chest/ender"));
+    }
+
+    @Test
+    public void testFilters() {
+        TextureAtlasSource directory = new TextureAtlasDirectorySource("item", "item/");
+        TextureAtlasSource namespaceFilter = new TextureAtlasFilterSource(Pattern.compile("hidden"), Pattern.compile("(?!)"));
+        TextureAtlasSource pathFilter = new TextureAtlasFilterSource(Pattern.compile("(?!)"), Pattern.compile("item/secret_.*"));
+        TextureAtlasMatcher matcher = TextureAtlasMatcher.compile(List.of(List.of(directory, namespaceFilter, pathFilter)));
+
+        assertSame(directory, matcher.match("minecraft", "item/apple"));
+        assertNull(matcher.match("hidden", "item/apple"));
+        assertNull(matcher.match("minecraft", "item/secret_apple"));
+    }
+
+    @Test
+    public void testOnlyFirstListUsed() {
+        TextureAtlasSource first = new TextureAtlasDirectorySource("gui", "gui/");
+        TextureAtlasSource second = new TextureAtlasDirectorySource("mob_effect", "mob_effect/");
+        TextureAtlasMatcher matcher = TextureAtlasMatcher.compile(List.of(List.of(first), List.of(second)));
+
+        assertSame(first, matcher.match("minecraft", "gui/title"));
+        assertNull(matcher.match("minecraft", "mob_effect/speed"));
+    }
+
+    @Test
+    public void testUnmatched() {
+        TextureAtlasMatcher empty = TextureAtlasMatcher.compile(Collections.emptyList());
+        assertNull(empty.match("minecraft", "block/stone"));
+        assertNull(empty.match("minecraft", "item/apple"));
+
+        TextureAtlasMatcher matcher = TextureAtlasMatcher.compile(List.of(List.of(new TextureAtlasDirectorySource("gui", "gui/"))));
+        assertNull(matcher.match("minecraft", "block/stone"));
+        assertNull(matcher.match("minecraft", "item/apple"));
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZipIndexNodeTest {
+
+    private static ZipIndexNode<String> createIndex() {
+        ZipIndexNode<String> root = new ZipIndexNode<>();
+        root.add("pack.mcmeta", "pack.mcmeta", 0);
+        root.add("assets/", null, 1);
+        root.add("assets/minecraft/textures/block/stone.png", "stone", 2);
+        root.add("assets/minecraft/textures/block/dirt.png", "dirt", 3);
+        root.add("assets/minecraft/models/item/stick.json", "stick", 4);
+        root.add("assets/custom//lang/en_us.json", "lang", 5);
+        return root;
+    }
+
+    @Test
+    public void testFindFilesAndDirectories() {
+        ZipIndexNode<String> root = createIndex();
+        assertEquals("pack.mcmeta", root.find("pack.mcmeta").getEntry());
+        assertEquals("stone", root.find("assets/minecraft/textures/block/stone.png").getEntry());
+
+        ZipIndexNode<String> block = root.find("assets/minecraft/textures/block");
+        assertNotNull(block);
+        assertTrue(block.exists());
+        assertTrue(block.hasChildren());
+        assertNull(block.getEntry());
+        assertEquals(List.of("stone.png", "dirt.png"), new ArrayList<>(block.getChildren().keySet()));
+    }
+
+    @Test
+    public void testFindIgnoresEmptySegments() {
+        ZipIndexNode<String> root = createIndex();
+        assertSame(root, root.find(""));
+        assertEquals("stone", root.find("/assets//minecraft/textures/block/stone.png/").getEntry());
+        assertEquals("lang", root.find("assets/custom/lang/en_us.json").getEntry());
+    }
+
+    @Test
+    public void testMissingPaths() {
+        ZipIndexNode<String> root = createIndex();
+        assertNull(root.find("assets/minecraft/sounds"));
+        assertNull(root.find("pack.mcmeta/child"));
+        assertNull(root.find("assets/minecraft/textures/block/stone"));
+    }
+
+    @Test
+    public void testCollectEntriesInArchiveOrder() {
+        ZipIndexNode<String> root = new ZipIndexNode<>();
+        root.add("b/second.json", "second", 1);
+        root.add("a/third.json", "third", 2);
+        root.add("b/first.json", "first", 0);
+        List<String> entries = root.collectEntries(new ArrayList<>()).stream().map(ZipIndexNode::getEntry).collect(Collectors.toList());
+        assertEquals(List.of("first", "second", "third"), entries);
+
+        List<String> subtree = root.find("b").collectEntries(new ArrayList<>()).stream().map(ZipIndexNode::getEntry).collect(Collectors.toList());
+        assertEquals(List.of("first", "second"), subtree);
+    }
+
+}
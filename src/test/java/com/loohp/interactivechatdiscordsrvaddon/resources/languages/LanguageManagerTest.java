@@ -0,0 +1,105 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.loohp.interactivechatdiscordsrvaddon.resources.languages;
+
+import com.loohp.interactivechatdiscordsrvaddon.resources.ResourceManager;
+import com.loohp.interactivechatdiscordsrvaddon.resources.ResourcePackSystemFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LanguageManagerTest {
+
+    @TempDir
+    File folder;
+
+    ResourceManager resourceManager;
+    LanguageManager languageManager;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        Files.write(new File(folder, "en_us.json").toPath(), "{\"item.minecraft.stick\":\"Stick\"}".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(folder, "de_de.json").toPath(), "{\"item.minecraft.stick\":\"Stock\"}".getBytes(StandardCharsets.UTF_8));
+        resourceManager = new ResourceManager(false, false, Collections.emptyList(), Collections.emptyList(), 12);
+        languageManager = resourceManager.getLanguageManager();
+        languageManager.setLazyLoading(true);
+        languageManager.loadDirectory("minecraft", new ResourcePackSystemFile(folder), Collections.emptyMap());
+    }
+
+    @AfterEach
+    public void close() {
+        resourceManager.close();
+    }
+
+    @Test
+    public void testLocaleLoadsOnFirstUse() {
+        assertFalse(languageManager.isLocaleLoaded("en_us"));
+        assertFalse(languageManager.isLocaleLoaded("de_de"));
+
+        assertEquals("Stock", languageManager.applyTranslations("item.minecraft.stick", "de_de"));
+        assertTrue(languageManager.isLocaleLoaded("de_de"));
+        assertFalse(languageManager.isLocaleLoaded("en_us"));
+    }
+
+    @Test
+    public void testPublishedTranslationsCoverUnloadedLocales() {
+        Map<String, Map<String, String>> published = languageManager.getTranslations();
+        assertTrue(published.containsKey("en_us"));
+        assertTrue(published.containsKey("de_de"));
+        assertFalse(languageManager.isLocaleLoaded("en_us"));
+
+        assertEquals("Stick", published.get("en_us").get("item.minecraft.stick"));
+        assertTrue(languageManager.isLocaleLoaded("en_us"));
+    }
+
+    @Test
+    public void testIdleLocalesAreEvictedAndReloaded() {
+        Map<String, String> english = languageManager.getTranslations().get("en_us");
+        assertEquals("Stick", english.get("item.minecraft.stick"));
+        assertEquals(0, languageManager.evictUnusedLocales(60000));
+
+        assertEquals(1, languageManager.evictUnusedLocales(-1));
+        assertFalse(languageManager.isLocaleLoaded("en_us"));
+
+        assertEquals("Stick", english.get("item.minecraft.stick"));
+        assertTrue(languageManager.isLocaleLoaded("en_us"));
+    }
+
+    @Test
+    public void testPinnedLocalesAreNotEvicted() {
+        languageManager.preloadLocale("en_us").join();
+        languageManager.loadLocale("de_de");
+
+        assertEquals(1, languageManager.evictUnusedLocales(-1));
+        assertTrue(languageManager.isLocaleLoaded("en_us"));
+        assertFalse(languageManager.isLocaleLoaded("de_de"));
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.loohp.interactivechatdiscordsrvaddon.resources.languages;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TranslationStoreTest {
+
+    @Test
+    public void testPutAndGet() {
+        TranslationStore store = new TranslationStore();
+        store.put("en_us", "block.minecraft.stone", "Stone");
+        store.put("de_de", "block.minecraft.stone", "Stein");
+        store.put("en_us", "item.minecraft.apple", "Apple");
+
+        assertEquals("Stone", store.get("en_us", "block.minecraft.stone"));
+        assertEquals("Stein", store.get("de_de", "block.minecraft.stone"));
+        assertEquals("Apple", store.get("en_us", "item.minecraft.apple"));
+        assertNull(store.get("de_de", "item.minecraft.apple"));
+        assertNull(store.get("fr_fr", "block.minecraft.stone"));
+        assertEquals(2, store.getKeyCount());
+        assertEquals(store.getKeyId("block.minecraft.stone"), store.getKeyId("block.minecraft.stone"));
+        assertEquals(-1, store.getKeyId("missing"));
+
+        store.put("en_us", "block.minecraft.stone", "Smooth Stone");
+        assertEquals("Smooth Stone", store.get("en_us", "block.minecraft.stone"));
+        assertEquals(2, store.getLocale("en_us").size());
+    }
+
+    @Test
+    public void testNullRemovesValue() {
+        TranslationStore store = new TranslationStore();
+        store.put("en_us", "a", "A");
+        store.put("en_us", "b", "B");
+        store.put("en_us", "a", null);
+
+        assertNull(store.get("en_us", "a"));
+        assertEquals(1, store.getLocale("en_us").size());
+        assertEquals(Map.of("b", "B"), new HashMap<>(store.asMap("en_us")));
+        store.put("en_us", "missing", null);
+        assertEquals(1, store.getLocale("en_us").size());
+    }
+
+    @Test
+    public void testGrowth() {
+        TranslationStore store = new TranslationStore();
+        Map<String, String> translations = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            translations.put("key." + i, "value." + i);
+        }
+        store.putAll("en_us", translations);
+
+        assertEquals(5000, store.getKeyCount());
+        assertEquals(5000, store.getLocale("en_us").size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals("value." + i, store.get("en_us", "key." + i));
+        }
+        assertEquals(translations, new HashMap<>(store.asMap("en_us")));
+    }
+
+    @Test
+    public void testRemoveLocaleDetaches() {
+        TranslationStore store = new TranslationStore();
+        store.put("en_us", "a", "A");
+        store.put("de_de", "b", "B");
+        TranslationStore.LocaleTranslations english = store.getLocale("en_us");
+        store.removeLocale("en_us");
+
+        assertFalse(store.hasLocale("en_us"));
+        assertTrue(store.hasLocale("de_de"));
+        assertNull(store.get("en_us", "a"));
+        assertTrue(store.asMap("en_us").isEmpty());
+        assertEquals("A", english.get("a"));
+        assertEquals(Map.of("a", "A"), new HashMap<>(english.asMap()));
+
+        store.clear();
+        assertEquals(0, store.getKeyCount());
+        assertTrue(store.getLocales().isEmpty());
+    }
+
+    @Test
+    public void testCompaction() {
+        TranslationStore store = new TranslationStore();
+        Map<String, String> removed = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            removed.put("removed." + i, "r" + i);
+        }
+        Map<String, String> kept = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            kept.put("kept." + i, "k" + i);
+        }
+        store.putAll("en_us", removed);
+        store.putAll("de_de", kept);
+        store.put("de_de", "removed.0", "shared");
+        TranslationStore.LocaleTranslations english = store.getLocale("en_us");
+        assertEquals(3000, store.getKeyCount());
+
+        store.removeLocale("en_us");
+
+        assertEquals(1001, store.getKeyCount());
+        assertEquals(-1, store.getKeyId("removed.1"));
+        kept.put("removed.0", "shared");
+        assertEquals(kept, new HashMap<>(store.asMap("de_de")));
+        for (Map.Entry<String, String> entry : kept.entrySet()) {
+            assertEquals(entry.getValue(), store.get("de_de", entry.getKey()));
+        }
+        assertEquals("r1999", english.get("removed.1999"));
+        assertEquals(removed, new HashMap<>(english.asMap()));
+
+        store.put("de_de", "new", "N");
+        assertEquals("N", store.get("de_de", "new"));
+        assertEquals(1002, store.getKeyCount());
+    }
+
+}
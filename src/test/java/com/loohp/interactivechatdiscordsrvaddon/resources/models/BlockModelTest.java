@@ -0,0 +1,145 @@
+/*
+ * This file is part of InteractiveChatDiscordSrvAddon2.
+ *
+ * Copyright (C) 2022. LoohpJames <jamesloohp@gmail.com>
+ * Copyright (C) 2022. Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.loohp.interactivechatdiscordsrvaddon.resources.models;
+
+import com.google.gson.stream.JsonReader;
+import com.loohp.interactivechatdiscordsrvaddon.utils.JsonUtils;
+import org.json.simple.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockModelTest {
+
+    private static final String MODEL = """
+            {
+              "parent": "item/handheld",
+              "ambientocclusion": false,
+              "gui_light": "front",
+              "comment": {"ignored": [1, 2, {"x": null}]},
+              "display": {
+                "thirdperson_righthand": {"rotation": [0, -90, 55], "translation": [0, 4.0, 0.5], "scale": [0.85, 0.85, 0.85]},
+                "gui": {"rotation": [30, 225, 0]},
+                "head": {"scale": null}
+              },
+              "textures": {"particle": "#all", "all": "block/stone", "layer0": "minecraft:item/stick"},
+              "elements": [
+                {
+                  "name": "body",
+                  "from": [0, 0, 0],
+                  "to": [16, 16.5, 16],
+                  "shade": false,
+                  "rotation": {"origin": [8, 8, 8], "axis": "y", "angle": -22.5, "rescale": true},
+                  "faces": {
+                    "down": {"uv": [0, 0, 16, 16], "texture": "#all", "cullface": "down", "tintindex": 0},
+                    "up": {"texture": "#all", "rotation": 90},
+                    "north": {"uv": [16, 0, 0, 16], "texture": "#all", "cullface": "bottom"},
+                    "south": {"texture": "#all", "cullface": null}
+                  }
+                },
+                {"from": [1, 2, 3], "to": [4, 5, 6], "rotation": {"axis": "x", "angle": 45}}
+              ],
+              "overrides": [
+                {"predicate": {"custom_model_data": 1}, "model": "item/first"},
+                {"predicate": {"damage": 0.5, "damaged": 1, "not_a_predicate": 3}, "model": "item/second"},
+                {"predicate": {}, "model": "item/third"}
+              ]
+            }
+            """;
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testStreamingParserMatchesJsonObjectParser() throws IOException {
+        JSONObject rootJson = JsonUtils.readJSONObject(stream(MODEL));
+        BlockModel expected = BlockModel.fromJson(null, "minecraft:item/test", rootJson);
+        BlockModel actual;
+        try (JsonReader reader = JsonUtils.createReader(stream(MODEL))) {
+            actual = BlockModel.fromJson(null, "minecraft:item/test", reader);
+        }
+
+        assertEquals(expected.getResourceLocation(), actual.getResourceLocation());
+        assertEquals(expected.getRawParent(), actual.getRawParent());
+        assertEquals(expected.isAmbientocclusion(), actual.isAmbientocclusion());
+        assertEquals(expected.getRawGUILight(), actual.getRawGUILight());
+        assertEquals(expected.getTextures(), actual.getTextures());
+
+        Map<ModelDisplay.ModelDisplayPosition, ModelDisplay> expectedDisplay = expected.getRawDisplay();
+        assertEquals(expectedDisplay.keySet(), actual.getRawDisplay().keySet());
+        expectedDisplay.forEach((position, display) -> {
+            ModelDisplay other = actual.getRawDisplay().get(position);
+            assertEquals(display.getPosition(), other.getPosition());
+            assertCoordinates(display.getRotation(), other.getRotation());
+            assertCoordinates(display.getTranslation(), other.getTranslation());
+            assertCoordinates(display.getScale(), other.getScale());
+        });
+
+        assertEquals(expected.getElements().size(), actual.getElements().size());
+        for (int i = 0; i < expected.getElements().size(); i++) {
+            ModelElement element = expected.getElements().get(i);
+            ModelElement other = actual.getElements().get(i);
+            assertEquals(element.getName(), other.getName());
+            assertEquals(element.isShade(), other.isShade());
+            assertCoordinates(element.getFrom(), other.getFrom());
+            assertCoordinates(element.getTo(), other.getTo());
+            ModelElement.ModelElementRotation rotation = element.getRotation();
+            ModelElement.ModelElementRotation otherRotation = other.getRotation();
+            assertCoordinates(rotation.getOrigin(), otherRotation.getOrigin());
+            assertEquals(rotation.getAxis(), otherRotation.getAxis());
+            assertEquals(rotation.getAngle(), otherRotation.getAngle());
+            assertEquals(rotation.isRescale(), otherRotation.isRescale());
+            assertEquals(element.getFaces().keySet(), other.getFaces().keySet());
+            element.getFaces().forEach((side, face) -> {
+                ModelFace otherFace = other.getFaces().get(side);
+                assertEquals(face.getSide(), otherFace.getSide());
+                assertEquals(face.getRawTexture(), otherFace.getRawTexture());
+                assertEquals(face.getCullface(), otherFace.getCullface());
+                assertEquals(face.getRotation(), otherFace.getRotation());
+                assertEquals(face.getTintindex(), otherFace.getTintindex());
+                if (face.getUV() == null) {
+                    assertNull(otherFace.getUV());
+                } else {
+                    assertEquals(face.getUV().getX1(), otherFace.getUV().getX1());
+                    assertEquals(face.getUV().getY1(), otherFace.getUV().getY1());
+                    assertEquals(face.getUV().getX2(), otherFace.getUV().getX2());
+                    assertEquals(face.getUV().getY2(), otherFace.getUV().getY2());
+                }
+            });
+        }
+
+        assertEquals(expected.getOverrides(), actual.getOverrides());
+        assertEquals("item/third", actual.getOverrides().get(0).getRawModel());
+    }
+
+    private static void assertCoordinates(Coordinates3D expected, Coordinates3D actual) {
+        assertEquals(expected.getX(), actual.getX());
+        assertEquals(expected.getY(), actual.getY());
+        assertEquals(expected.getZ(), actual.getZ());
+    }
+
+}